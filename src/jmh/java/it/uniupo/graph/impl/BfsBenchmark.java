@@ -0,0 +1,69 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.VisitResult;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Direction-optimizing BFS on random graphs with eight edges per vertex, with 1 to 8 threads:
+ * the levels alone, and the full getBFSTree that also fills the VisitResult.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BfsBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int edges;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private IncidMatrixUndir graph;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int vertices = edges / 8;
+        graph = new IncidMatrixUndir(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < edges)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), 0.0);
+        graph.adjacency();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public DirectionOptimizingBfs levels() {
+        return DirectionOptimizingBfs.visit(graph.adjacency(), 0, pool);
+    }
+
+    @Benchmark
+    public VisitResult bfsTree() {
+        return graph.getBFSTree(0, pool);
+    }
+}
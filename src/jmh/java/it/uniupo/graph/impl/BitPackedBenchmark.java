@@ -0,0 +1,84 @@
+package it.uniupo.graph.impl;
+
+import it.uniupo.graph.generator.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adjacency queries on a dense unweighted Erdős–Rényi graph with 20k vertexes,
+ * the bitmap of BIT_PACKED against the edge index and incidence lists of SPARSE.
+ * Run {@link #build()} with {@code -prof gc} to compare the bytes allocated by each storage;
+ * the DENSE matrix of the same graph would take 8 V E bytes, terabytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class BitPackedBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"20000"})
+    public int vertices;
+
+    @Param({"0.01", "0.1"})
+    public double density;
+
+    @Param({"SPARSE", "BIT_PACKED"})
+    public StorageMode mode;
+
+    private IncidMatrixUndir.Builder builder;
+    private IncidMatrixUndir graph;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int edges = (int) (density * vertices * (vertices - 1) / 2);
+        builder = GraphGenerator.seeded(42).erdosRenyi(vertices, edges).storage(mode);
+        graph = builder.build();
+        Random random = new Random(7);
+        sources = new int[QUERIES];
+        targets = new int[QUERIES];
+        for (int i = 0; i < QUERIES; ++i) {
+            sources[i] = random.nextInt(vertices);
+            targets[i] = random.nextInt(vertices);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IncidMatrixUndir build() {
+        return builder.build();
+    }
+
+    @Benchmark
+    public boolean isAdjacent() {
+        next = (next + 1) & (QUERIES - 1);
+        return graph.isAdjacent(sources[next], targets[next]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Integer> getAdjacent() {
+        next = (next + 1) & (QUERIES - 1);
+        return graph.getAdjacent(sources[next]);
+    }
+}
@@ -0,0 +1,70 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a sparse random graph with eight edges per vertex (some of them duplicates):
+ * the builder against a loop of addVertex and addColumn, which grows the storage and the index as it goes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BuilderBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int edges;
+
+    private int vertices;
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vertices = edges / 8;
+        sources = new int[edges];
+        targets = new int[edges];
+        weights = new double[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = random.nextInt(vertices);
+            targets[i] = random.nextInt(vertices);
+            weights[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight builder() {
+        return IncidMatrixUndir.builder()
+                .vertices(vertices)
+                .storage(StorageMode.SPARSE)
+                .edges(sources, targets, weights)
+                .buildWeighted();
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight incremental() {
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        for (int i = 0; i < edges; ++i)
+            graph.addColumn(sources[i], targets[i], weights[i]);
+        return graph;
+    }
+}
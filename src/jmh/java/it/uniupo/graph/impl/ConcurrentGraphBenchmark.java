@@ -0,0 +1,124 @@
+package it.uniupo.graph.impl;
+
+import it.uniupo.graph.generator.GraphGenerator;
+import it.uniupo.graph.generator.WeightDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.VisitResult;
+import upo.graph.base.WeightedGraph;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Seven threads running Dijkstra and BFS while one thread changes edge weights, on a random graph
+ * with eight edges per vertex: the copy-on-write {@link ConcurrentWeightedGraph}, whose readers never block
+ * and whose writer copies the graph, against one graph behind a ReentrantReadWriteLock,
+ * whose writer changes it in place but waits for the readers and stops them.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ConcurrentGraphBenchmark {
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    private ConcurrentWeightedGraph copyOnWrite;
+    private IncidMatrixUndirWeight locked;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[] sources;
+    private int[] targets;
+
+    @Setup
+    public void setUp() {
+        IncidMatrixUndir.Builder builder = GraphGenerator.seeded(42)
+                .weights(WeightDistribution.uniformInt(1, 100))
+                .erdosRenyi(vertices, 4 * vertices)
+                .storage(StorageMode.SPARSE);
+        copyOnWrite = new ConcurrentWeightedGraph(builder.buildWeighted());
+        locked = builder.buildWeighted();
+        // no Edge objects, Edge.getEdgeByVertexes is not thread-safe and O(E) a call
+        sources = new int[locked.edgeCount()];
+        targets = new int[sources.length];
+        AtomicInteger next = new AtomicInteger();
+        locked.forEachEdge((source, target, weight) -> {
+            sources[next.get()] = source;
+            targets[next.getAndIncrement()] = target;
+        });
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(7)
+    public WeightedGraph copyOnWriteDijkstra() {
+        return copyOnWrite.getDijkstraShortestPaths(ThreadLocalRandom.current().nextInt(vertices));
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(1)
+    public ConcurrentWeightedGraph copyOnWriteUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int edge = random.nextInt(sources.length);
+        copyOnWrite.setEdgeWeight(sources[edge], targets[edge], 1 + random.nextInt(100));
+        return copyOnWrite;
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(7)
+    public WeightedGraph readWriteLockDijkstra() {
+        lock.readLock().lock();
+        try {
+            return locked.getDijkstraShortestPaths(ThreadLocalRandom.current().nextInt(vertices));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("readWriteLock")
+    @GroupThreads(1)
+    public IncidMatrixUndirWeight readWriteLockUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int edge = random.nextInt(sources.length);
+        lock.writeLock().lock();
+        try {
+            locked.matrix.setWeight(locked.edgeIndex.get(sources[edge], targets[edge]), 1 + random.nextInt(100));
+            return locked;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("copyOnWriteBfs")
+    @GroupThreads(7)
+    public VisitResult copyOnWriteBfs() {
+        return copyOnWrite.getBFSTree(ThreadLocalRandom.current().nextInt(vertices));
+    }
+
+    @Benchmark
+    @Group("copyOnWriteBfs")
+    @GroupThreads(1)
+    public ConcurrentWeightedGraph copyOnWriteBfsUpdate() {
+        return this.copyOnWriteUpdate();
+    }
+}
@@ -0,0 +1,55 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connected components of random graphs with as many edges as vertexes (many small components
+ * around a giant one), as labels and as the Set of Sets of the Graph interface.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConnectedComponentsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    private IncidMatrixUndir graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndir(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < vertices)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), 0.0);
+    }
+
+    @Benchmark
+    public int[] componentIds() {
+        return graph.connectedComponentIds();
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> components() {
+        return graph.connectedComponents();
+    }
+}
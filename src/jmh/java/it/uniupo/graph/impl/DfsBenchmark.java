@@ -0,0 +1,71 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.VisitResult;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterative DFS on a path (the worst case for the stack depth) and on a random graph
+ * with four edges per vertex: the engine alone, getDFSTree and isCyclic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DfsBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"path", "random"})
+    public String shape;
+
+    private IncidMatrixUndir graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndir(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        if (shape.equals("path")) {
+            for (int i = 1; i < vertices; ++i)
+                graph.addColumn(i - 1, i, 0.0);
+        } else {
+            while (graph.matrix.columns() < 4 * vertices)
+                graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), 0.0);
+        }
+        graph.adjacency();
+    }
+
+    @Benchmark
+    public DepthFirstSearch engine() {
+        DepthFirstSearch dfs = new DepthFirstSearch(graph.adjacency());
+        dfs.visit(0);
+        return dfs;
+    }
+
+    @Benchmark
+    public VisitResult dfsTree() {
+        return graph.getDFSTree(0);
+    }
+
+    @Benchmark
+    public boolean cyclic() {
+        return graph.isCyclic();
+    }
+}
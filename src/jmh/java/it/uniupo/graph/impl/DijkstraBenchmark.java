@@ -0,0 +1,152 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.Edge;
+import upo.graph.base.WeightedGraph;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Dijkstra with the indexed heap against the previous PriorityQueue implementation,
+ * on random graphs with ten edges per vertex.
+ * The previous implementation is O(V * E) and looks edges up with Edge.getEdgeByVertexes,
+ * so it only runs on the smallest graph, where {@link #indexedHeapSmall} is the direct comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DijkstraBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Large {
+
+        @Param({"10000", "100000", "1000000"})
+        public int edges;
+
+        IncidMatrixUndirWeight graph;
+
+        @Setup
+        public void setUp() {
+            graph = randomGraph(edges);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Small {
+
+        @Param({"10000"})
+        public int legacyEdges;
+
+        IncidMatrixUndirWeight graph;
+
+        @Setup
+        public void setUp() {
+            graph = randomGraph(legacyEdges);
+        }
+    }
+
+    private static IncidMatrixUndirWeight randomGraph(int edges) {
+        Random random = new Random(42);
+        int vertices = edges / 10;
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < edges)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+        return graph;
+    }
+
+    @Benchmark
+    public WeightedGraph indexedHeap(Large state) {
+        return state.graph.getDijkstraShortestPaths(0);
+    }
+
+    @Benchmark
+    public WeightedGraph indexedHeapSmall(Small state) {
+        return state.graph.getDijkstraShortestPaths(0);
+    }
+
+    @Benchmark
+    public WeightedGraph legacy(Small state) {
+        return legacyDijkstra(state.graph, 0);
+    }
+
+    /**
+     * Copy of the previous implementation: the queue is scanned twice and an element removed
+     * for each relaxation.
+     */
+    static WeightedGraph legacyDijkstra(IncidMatrixUndirWeight graph, Integer source) {
+        IncidMatrixUndirWeight visitGraph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        PriorityQueue<Entry> priorityQueue =
+                new PriorityQueue<>(graph.size(), Comparator.comparingDouble(entry -> entry.distance));
+        List<Entry> entries = graph.getVertices().stream()
+                .map(Entry::new)
+                .peek(entry -> {
+                    if (Objects.equals(entry.vertex, source))
+                        entry.distance = 0.0;
+                    priorityQueue.add(entry);
+                    visitGraph.addVertex();
+                })
+                .collect(Collectors.toList());
+
+        Set<Integer> blackVertexes = new HashSet<>();
+        while (!priorityQueue.isEmpty()) {
+            Entry polled = priorityQueue.poll();
+            blackVertexes.add(polled.vertex);
+            graph.getAdjacent(polled.vertex)
+                    .stream()
+                    .filter(v -> !blackVertexes.contains(v))
+                    .forEach(adjacent -> {
+                        if (graph.getEdgeWeight(Edge.getEdgeByVertexes(polled.vertex, adjacent)) + polled.distance
+                                < priorityQueue.stream()
+                                .filter(v -> Objects.equals(v.vertex, adjacent))
+                                .map(v -> v.distance)
+                                .findFirst().orElse(Double.POSITIVE_INFINITY)) {
+                            Entry element = priorityQueue.stream()
+                                    .filter(v -> Objects.equals(v.vertex, adjacent))
+                                    .findFirst()
+                                    .orElse(null);
+                            priorityQueue.remove(element);
+                            element.distance = graph.getEdgeWeight(Edge.getEdgeByVertexes(polled.vertex, adjacent)) + polled.distance;
+                            element.predecessor = polled.vertex;
+                            priorityQueue.add(element);
+                        }
+                    });
+        }
+        entries.forEach(entry -> {
+            if (entry.predecessor != null)
+                visitGraph.addColumn(entry.predecessor, entry.vertex, entry.distance);
+        });
+        return visitGraph;
+    }
+
+    private static final class Entry {
+        private final Integer vertex;
+        private Integer predecessor;
+        private Double distance = Double.POSITIVE_INFINITY;
+
+        private Entry(Integer vertex) {
+            this.vertex = vertex;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.Edge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weight lookups and updates through the edge index on a graph of 100k edges.
+ * Only a sample of the edges is materialized as Edge objects, as Edge.getEdgeByVertexes
+ * scans every edge created so far.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EdgeWeightBenchmark {
+
+    private static final int SAMPLE = 1024;
+
+    @Param({"10000"})
+    public int vertices;
+
+    @Param({"100000"})
+    public int edges;
+
+    // a dense 10k x 100k matrix would need 8 GB of cells
+    @Param({"SPARSE", "OFF_HEAP"})
+    public StorageMode mode;
+
+    private IncidMatrixUndirWeight graph;
+    private Edge[] sample;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndirWeight(mode);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < edges)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+        sample = new Edge[SAMPLE];
+        for (int i = 0; i < SAMPLE; ++i)
+            sample[i] = graph.edgeAt(random.nextInt(edges));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public double getEdgeWeight() {
+        double sum = 0;
+        for (Edge edge : sample)
+            sum += graph.getEdgeWeight(edge);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public IncidMatrixUndirWeight setEdgeWeight() {
+        for (int i = 0; i < SAMPLE; ++i)
+            graph.setEdgeWeight(sample[i], i);
+        return graph;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE)
+    public int containsEdge() {
+        int found = 0;
+        for (Edge edge : sample)
+            found += graph.containsEdge(edge) ? 1 : 0;
+        return found;
+    }
+}
@@ -0,0 +1,84 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The blocked, parallel Floyd-Warshall against the textbook triple loop over the same flat tables,
+ * on random graphs with five edges per vertex.
+ * Run with {@code -jvmArgs -Djava.util.concurrent.ForkJoinPool.common.parallelism=N} to see the scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FloydWarshallBenchmark {
+
+    @Param({"500", "1000", "2000"})
+    public int vertices;
+
+    private IncidMatrixUndirWeight graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < 5 * vertices)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+    }
+
+    @Benchmark
+    public ShortestPathMatrix blocked() {
+        return graph.getFloydWarshallMatrix();
+    }
+
+    @Benchmark
+    public ShortestPathMatrix textbook() {
+        int size = graph.size();
+        double[] distances = new double[size * size];
+        int[] nextHops = new int[size * size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(nextHops, -1);
+        for (int i = 0; i < size; ++i) {
+            distances[i * size + i] = 0.0;
+            nextHops[i * size + i] = i;
+        }
+        for (int i = 0; i < graph.matrix.columns(); ++i) {
+            int source = graph.matrix.source(i);
+            int target = graph.matrix.target(i);
+            distances[source * size + target] = distances[target * size + source] = graph.matrix.weight(i);
+            nextHops[source * size + target] = target;
+            nextHops[target * size + source] = source;
+        }
+        for (int k = 0; k < size; ++k) {
+            for (int i = 0; i < size; ++i) {
+                double throughK = distances[i * size + k];
+                int hop = nextHops[i * size + k];
+                for (int j = 0; j < size; ++j) {
+                    if (throughK + distances[k * size + j] < distances[i * size + j]) {
+                        distances[i * size + j] = throughK + distances[k * size + j];
+                        nextHops[i * size + j] = hop;
+                    }
+                }
+            }
+        }
+        return new ShortestPathMatrix(size, distances, nextHops);
+    }
+}
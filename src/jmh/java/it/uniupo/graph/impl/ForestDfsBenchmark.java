@@ -0,0 +1,81 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.VisitResult;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The DFS forest on a graph made of many small random trees: the shared visit of getDFSTOTForest
+ * against the old one, which ran getDFSTree for each WHITE root and copied every vertex of each result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ForestDfsBenchmark {
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    @Param({"4", "32"})
+    public int treeSize;
+
+    private IncidMatrixUndir graph;
+    private Integer[] roots;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndir(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        for (int i = 0; i < vertices; ++i) {
+            if (i % treeSize != 0)
+                graph.addColumn(i - 1 - random.nextInt(i % treeSize), i, 0.0);
+        }
+        graph.adjacency();
+        roots = IntStream.range(0, vertices).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public VisitResult shared() {
+        return graph.getDFSTOTForest(roots);
+    }
+
+    @Benchmark
+    public VisitResult perRoot() {
+        VisitResult visitResult = new VisitResult(graph);
+        for (Integer vertex : roots) {
+            if (visitResult.getColor(vertex).equals(VisitResult.Color.WHITE)) {
+                VisitResult currentVisit = graph.getDFSTree(vertex);
+                IntStream.range(0, graph.size())
+                        .boxed()
+                        .forEach(ver -> {
+                            if (currentVisit.getColor(ver).equals(VisitResult.Color.BLACK)) {
+                                visitResult.setColor(ver, VisitResult.Color.BLACK);
+                                visitResult.setEndTime(ver, currentVisit.getEndTime(ver));
+                                visitResult.setStartTime(ver, currentVisit.getStartTime(ver));
+                                if (currentVisit.getPartent(ver) != null)
+                                    visitResult.setParent(ver, currentVisit.getPartent(ver));
+                            }
+                        });
+            }
+        }
+        return visitResult;
+    }
+}
@@ -0,0 +1,191 @@
+package it.uniupo.graph.impl;
+
+import it.uniupo.graph.generator.GraphGenerator;
+import it.uniupo.graph.generator.WeightDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.Edge;
+import upo.graph.base.VisitResult;
+import upo.graph.base.WeightedGraph;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every operation of Graph and WeightedGraph on an Erdős–Rényi graph from {@link GraphGenerator}, for each storage mode,
+ * with {@code degree} edges per vertex and weights uniform in [0, 99]: throughput and sampled latency of each call.
+ * Run with {@code -prof gc} to get the bytes allocated per call as well.
+ * The queries cycle over precomputed vertexes and edges (half of them in the graph);
+ * addVertex and addEdge are measured together with the removal that restores the graph,
+ * removeVertex on a graph rebuilt before every invocation.
+ * isCyclic returns at once when E >= V, so it's measured on a random tree of the same size too.
+ * The DENSE matrix takes 8 V E bytes, which bounds the sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GraphOperationsBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"500", "2000"})
+    public int vertices;
+
+    @Param({"4", "16"})
+    public int degree;
+
+    @Param({"DENSE", "SPARSE", "OFF_HEAP"})
+    public StorageMode mode;
+
+    private IncidMatrixUndirWeight graph;
+    private IncidMatrixUndirWeight tree;
+    private int[] queryVertices;
+    private Edge[] queryEdges;
+    private Edge[] absentEdges;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        graph = randomGraph(vertices, degree, mode);
+        tree = randomTree(vertices, mode);
+        Random random = new Random(7);
+        queryVertices = new int[QUERIES];
+        queryEdges = new Edge[QUERIES];
+        for (int i = 0; i < QUERIES; ++i) {
+            queryVertices[i] = random.nextInt(vertices);
+            queryEdges[i] = i % 2 == 0
+                    ? graph.edgeAt(random.nextInt(graph.edgeCount()))
+                    : Edge.getEdgeByVertexes(random.nextInt(vertices), random.nextInt(vertices));
+        }
+        absentEdges = new Edge[QUERIES];
+        for (int i = 0; i < QUERIES; ) {
+            Edge edge = Edge.getEdgeByVertexes(random.nextInt(vertices), random.nextInt(vertices));
+            if (!graph.containsEdge(edge))
+                absentEdges[i++] = edge;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+        tree.close();
+    }
+
+    /**
+     * A graph rebuilt before every invocation, for the operations that destroy it.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        IncidMatrixUndirWeight graph;
+        int vertex;
+
+        @Setup(Level.Invocation)
+        public void setUp(GraphOperationsBenchmark benchmark) {
+            graph = randomGraph(benchmark.vertices, benchmark.degree, benchmark.mode);
+            vertex = benchmark.queryVertices[benchmark.nextQuery()];
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            graph.close();
+        }
+    }
+
+    static IncidMatrixUndirWeight randomGraph(int vertices, int degree, StorageMode mode) {
+        return GraphGenerator.seeded(42)
+                .weights(WeightDistribution.uniformInt(0, 99))
+                .erdosRenyi(vertices, vertices / 2 * degree)
+                .storage(mode)
+                .buildWeighted();
+    }
+
+    static IncidMatrixUndirWeight randomTree(int vertices, StorageMode mode) {
+        Random random = new Random(42);
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(vertices).storage(mode);
+        for (int i = 1; i < vertices; ++i)
+            builder.edge(random.nextInt(i), i, random.nextInt(100));
+        return builder.buildWeighted();
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public int addVertex() {
+        int vertex = graph.addVertex();
+        graph.removeVertex(vertex);
+        return vertex;
+    }
+
+    @Benchmark
+    public IncidMatrixUndir addEdge() {
+        Edge edge = absentEdges[this.nextQuery()];
+        graph.addEdge(edge);
+        graph.removeEdge(edge);
+        return graph;
+    }
+
+    @Benchmark
+    public IncidMatrixUndir removeVertex(Fresh fresh) {
+        fresh.graph.removeVertex(fresh.vertex);
+        return fresh.graph;
+    }
+
+    @Benchmark
+    public Set<Integer> getAdjacent() {
+        return graph.getAdjacent(queryVertices[this.nextQuery()]);
+    }
+
+    @Benchmark
+    public boolean containsEdge() {
+        return graph.containsEdge(queryEdges[this.nextQuery()]);
+    }
+
+    @Benchmark
+    public VisitResult getBFSTree() {
+        return graph.getBFSTree(queryVertices[this.nextQuery()]);
+    }
+
+    @Benchmark
+    public VisitResult getDFSTree() {
+        return graph.getDFSTree(queryVertices[this.nextQuery()]);
+    }
+
+    @Benchmark
+    public boolean isCyclic() {
+        return graph.isCyclic();
+    }
+
+    @Benchmark
+    public boolean isCyclicTree() {
+        return tree.isCyclic();
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> connectedComponents() {
+        return graph.connectedComponents();
+    }
+
+    @Benchmark
+    public WeightedGraph getDijkstraShortestPaths() {
+        return graph.getDijkstraShortestPaths(queryVertices[this.nextQuery()]);
+    }
+}
@@ -0,0 +1,168 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import upo.graph.base.Edge;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Footprint and throughput of the incidence matrix storage, against the previous boxed Double[][] matrix.
+ * Run with {@code -prof gc}: the normalized allocation rate of {@link #allocateMatrix} and {@link #legacyAllocateMatrix}
+ * is the size in bytes of one full matrix.
+ * The previous matrix was rebuilt whole for every new edge, so building a graph with it is O(V * E^2):
+ * only its allocation and its row scans are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IncidenceStorageBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Storage {
+
+        @Param({"100", "500"})
+        public int vertices;
+
+        @Param({"500", "2000"})
+        public int edges;
+
+        @Param({"false", "true"})
+        public boolean weighted;
+
+        @Param({"DENSE", "SPARSE", "OFF_HEAP"})
+        public StorageMode mode;
+
+        Edge[] randomEdges;
+        IncidMatrixUndir graph;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            randomEdges = new Edge[edges];
+            for (int i = 0; i < edges; ++i)
+                randomEdges[i] = Edge.getEdgeByVertexes(random.nextInt(vertices), random.nextInt(vertices));
+            graph = build();
+        }
+
+        IncidMatrixUndir build() {
+            IncidMatrixUndir built = weighted ? new IncidMatrixUndirWeight(mode) : new IncidMatrixUndir(mode);
+            for (int i = 0; i < vertices; ++i)
+                built.addVertex();
+            for (Edge edge : randomEdges)
+                built.addEdge(edge);
+            return built;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed {
+
+        @Param({"100", "500"})
+        public int legacyVertices;
+
+        @Param({"500", "2000"})
+        public int legacyEdges;
+
+        int[] sources;
+        int[] targets;
+        Double[][] matrix;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            sources = new int[legacyEdges];
+            targets = new int[legacyEdges];
+            for (int i = 0; i < legacyEdges; ++i) {
+                sources[i] = random.nextInt(legacyVertices);
+                targets[i] = random.nextInt(legacyVertices);
+            }
+            matrix = legacyMatrix(legacyVertices, legacyEdges, sources, targets);
+        }
+    }
+
+    /**
+     * Copy of the previous rebuildMatrix: every cell is boxed, a Double object and its reference.
+     */
+    static Double[][] legacyMatrix(int vertices, int edges, int[] sources, int[] targets) {
+        Double[][] matrix = new Double[vertices][edges];
+        for (int i = 0; i < vertices; ++i) {
+            for (int j = 0; j < edges; ++j)
+                matrix[i][j] = sources[j] == i || targets[j] == i ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return matrix;
+    }
+
+    @Benchmark
+    public IncidMatrixUndir buildGraph(Storage state) {
+        return state.build();
+    }
+
+    @Benchmark
+    public IncidenceStorage allocateMatrix(Storage state) {
+        IncidenceStorage storage = state.mode.newStorage(state.vertices, state.edges);
+        for (int i = 0; i < state.vertices; ++i)
+            storage.appendRow();
+        for (int i = 0; i < state.edges; ++i)
+            storage.appendColumn(i % state.vertices, (i + 1) % state.vertices, 0.0);
+        return storage;
+    }
+
+    @Benchmark
+    public Double[][] legacyAllocateMatrix(Boxed state) {
+        int vertices = state.legacyVertices;
+        int edges = state.legacyEdges;
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = i % vertices;
+            targets[i] = (i + 1) % vertices;
+        }
+        return legacyMatrix(vertices, edges, sources, targets);
+    }
+
+    @Benchmark
+    public IncidMatrixUndir removeAndAddEdge(Storage state) {
+        Edge edge = state.graph.edgeAt(0);
+        state.graph.removeEdge(edge);
+        state.graph.addEdge(edge);
+        return state.graph;
+    }
+
+    @Benchmark
+    public void adjacentScan(Storage state, Blackhole blackhole) {
+        for (int i = 0; i < state.vertices; ++i)
+            blackhole.consume(state.graph.getAdjacent(i));
+    }
+
+    /**
+     * Copy of the previous getAdjacent: the whole row is scanned, unboxing every cell.
+     */
+    @Benchmark
+    public void legacyAdjacentScan(Boxed state, Blackhole blackhole) {
+        Double[][] matrix = state.matrix;
+        for (int i = 0; i < state.legacyVertices; ++i) {
+            Set<Integer> adjacent = new HashSet<>();
+            for (int j = 0; j < state.legacyEdges; ++j) {
+                if (matrix[i][j] < Double.POSITIVE_INFINITY)
+                    adjacent.add(state.sources[j] == i ? state.targets[j] : state.sources[j]);
+            }
+            blackhole.consume(adjacent);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.WeightedGraph;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kruskal on random graphs with ten edges per vertex, sort of the packed keys included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KruskalBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int edges;
+
+    private IncidMatrixUndirWeight graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int vertices = edges / 10;
+        graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < edges)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+    }
+
+    @Benchmark
+    public WeightedGraph kruskal() {
+        return graph.getKruskalMST();
+    }
+}
@@ -0,0 +1,89 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A large graph kept alive while the application runs: a full collection has to trace the SPARSE storage,
+ * while the OFF_HEAP one is invisible to it.
+ * The components, read straight from the endpoints of the columns, show the cost of reading off-heap memory.
+ * Only the columns leave the heap: the edge index and the cached CSR adjacency of an OFF_HEAP graph stay on it,
+ * the {@code retainedHeapBytes} counter reports the heap still held by the graph once both are built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class OffHeapBenchmark {
+
+    @Param({"10000000"})
+    public int edges;
+
+    @Param({"SPARSE", "OFF_HEAP"})
+    public StorageMode mode;
+
+    private IncidMatrixUndir graph;
+    private long retainedHeapBytes;
+
+    /**
+     * Heap held by the graph, reported next to the times of the benchmarks.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long retainedHeapBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        Random random = new Random(42);
+        int vertices = edges / 8;
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(vertices).storage(mode);
+        for (int i = 0; i < edges; ++i)
+            builder.edge(random.nextInt(vertices), random.nextInt(vertices));
+        graph = builder.build();
+        builder = null;
+        graph.adjacency();
+        retainedHeapBytes = usedHeap() - before;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public void fullGc(Heap heap) {
+        heap.retainedHeapBytes = retainedHeapBytes;
+        System.gc();
+    }
+
+    @Benchmark
+    public int[] components(Heap heap) {
+        heap.retainedHeapBytes = retainedHeapBytes;
+        return graph.connectedComponentIds();
+    }
+}
@@ -0,0 +1,58 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.WeightedGraph;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prim against Kruskal on 2000 vertexes: with 5 edges per vertex Prim uses the heap,
+ * with 500 edges per vertex (a quarter of the complete graph) it scans the keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrimBenchmark {
+
+    @Param({"2000"})
+    public int vertices;
+
+    @Param({"5", "500"})
+    public int edgesPerVertex;
+
+    private IncidMatrixUndirWeight graph;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < vertices; ++i)
+            graph.addVertex();
+        while (graph.matrix.columns() < vertices * edgesPerVertex)
+            graph.addColumn(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+    }
+
+    @Benchmark
+    public WeightedGraph prim() {
+        return graph.getPrimMST(0, true);
+    }
+
+    @Benchmark
+    public WeightedGraph kruskal() {
+        return graph.getKruskalMST();
+    }
+}
@@ -0,0 +1,95 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruning 10% of the vertexes of a sparse random graph with four edges per vertex:
+ * removeVertices in one pass against a removeVertex call per vertex, O(V + E) each,
+ * which only runs on the smallest graph. The graph is rebuilt before every invocation.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RemoveVerticesBenchmark {
+
+    @State(Scope.Thread)
+    public static class Large {
+
+        @Param({"50000", "500000"})
+        public int vertices;
+
+        IncidMatrixUndirWeight graph;
+        List<Integer> pruned;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            graph = randomGraph(vertices);
+            pruned = prunedVertices(vertices);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Small {
+
+        @Param({"50000"})
+        public int legacyVertices;
+
+        IncidMatrixUndirWeight graph;
+        List<Integer> pruned;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            graph = randomGraph(legacyVertices);
+            pruned = prunedVertices(legacyVertices);
+        }
+    }
+
+    private static IncidMatrixUndirWeight randomGraph(int vertices) {
+        Random random = new Random(42);
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(vertices).storage(StorageMode.SPARSE);
+        for (int i = 0; i < 4 * vertices; ++i)
+            builder.edge(random.nextInt(vertices), random.nextInt(vertices), random.nextDouble());
+        return builder.buildWeighted();
+    }
+
+    /**
+     * @return every tenth vertex, in descending order so that removing them one by one keeps the labels valid.
+     */
+    private static List<Integer> prunedVertices(int vertices) {
+        List<Integer> pruned = new ArrayList<>();
+        for (int i = vertices - 1; i >= 0; i -= 10)
+            pruned.add(i);
+        return pruned;
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight batch(Large state) {
+        state.graph.removeVertices(state.pruned);
+        return state.graph;
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight oneByOne(Small state) {
+        for (Integer vertex : state.pruned)
+            state.graph.removeVertex(vertex);
+        return state.graph;
+    }
+}
@@ -0,0 +1,87 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * The scans behind getAdjacent on the wide rows of the DENSE matrix (a double per column)
+ * and on the endpoints of the BIT_PACKED columns (two ints per column), scalar against vectorized,
+ * with a fraction of the columns incident to the vertex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class RowScanBenchmark {
+
+    private static final int ROW = 1;
+
+    @Param({"1000", "100000", "10000000"})
+    public int columns;
+
+    @Param({"0.001", "0.1"})
+    public double incident;
+
+    private double[] cells;
+    private int[] sources;
+    private int[] targets;
+    private long sum;
+    private final IntConsumer action = column -> sum += column;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cells = new double[columns];
+        sources = new int[columns];
+        targets = new int[columns];
+        for (int i = 0; i < columns; ++i) {
+            boolean hit = random.nextDouble() < incident;
+            cells[i] = hit ? random.nextInt(100) : IncidenceStorage.NOT_INCIDENT;
+            sources[i] = hit ? ROW : 2 + random.nextInt(1000);
+            targets[i] = 2 + random.nextInt(1000);
+        }
+    }
+
+    @Benchmark
+    public long scalarRow() {
+        sum = 0;
+        RowScan.scalarForEachBelow(cells, columns, IncidenceStorage.NOT_INCIDENT, action);
+        return sum;
+    }
+
+    @Benchmark
+    public long vectorRow() {
+        sum = 0;
+        VectorRowScan.forEachBelow(cells, columns, IncidenceStorage.NOT_INCIDENT, action);
+        return sum;
+    }
+
+    @Benchmark
+    public long scalarEndpoints() {
+        sum = 0;
+        RowScan.scalarForEachEqual(sources, targets, columns, ROW, action);
+        return sum;
+    }
+
+    @Benchmark
+    public long vectorEndpoints() {
+        sum = 0;
+        VectorRowScan.forEachEqual(sources, targets, columns, ROW, action);
+        return sum;
+    }
+}
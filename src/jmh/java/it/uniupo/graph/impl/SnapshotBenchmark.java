@@ -0,0 +1,97 @@
+package it.uniupo.graph.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import upo.graph.base.VisitResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a random graph with eight edges per vertex: mapping its snapshot against building it
+ * from the edge arrays, and a BFS over the mapped graph against the same BFS over the heap graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SnapshotBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int edges;
+
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private int vertices;
+    private Path path;
+    private IncidMatrixUndirWeight heapGraph;
+    private GraphSnapshot snapshot;
+    private IncidMatrixUndirWeight mappedGraph;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        vertices = edges / 8;
+        sources = new int[edges];
+        targets = new int[edges];
+        weights = new double[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = random.nextInt(vertices);
+            targets[i] = random.nextInt(vertices);
+            weights[i] = random.nextDouble();
+        }
+        heapGraph = this.build();
+        path = Files.createTempFile("snapshot", ".graph");
+        GraphSnapshot.write(heapGraph, path);
+        snapshot = GraphSnapshot.open(path);
+        mappedGraph = snapshot.weightedGraph();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        snapshot.close();
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight build() {
+        return IncidMatrixUndir.builder()
+                .vertices(vertices)
+                .storage(StorageMode.SPARSE)
+                .edges(sources, targets, weights)
+                .buildWeighted();
+    }
+
+    @Benchmark
+    public int open() throws IOException {
+        try (GraphSnapshot opened = GraphSnapshot.open(path)) {
+            return opened.weightedGraph().size();
+        }
+    }
+
+    @Benchmark
+    public VisitResult bfsHeap() {
+        return heapGraph.getBFSTree(0);
+    }
+
+    @Benchmark
+    public VisitResult bfsMapped() {
+        return mappedGraph.getBFSTree(0);
+    }
+}
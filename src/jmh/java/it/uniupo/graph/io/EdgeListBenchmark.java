@@ -0,0 +1,88 @@
+package it.uniupo.graph.io;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+import it.uniupo.graph.impl.IncidMatrixUndirWeight;
+import it.uniupo.graph.impl.StorageMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing and exporting a random weighted edge list with eight edges per vertex,
+ * about 3 GB of text with 100M edges: parsing it into a builder, parsing and building the graph,
+ * and writing the graph back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx32g")
+public class EdgeListBenchmark {
+
+    @Param({"10000000", "100000000"})
+    public int edges;
+
+    private IncidMatrixUndirWeight graph;
+    private Path input;
+    private Path output;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        int vertices = edges / 8;
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        double[] weights = new double[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = random.nextInt(vertices);
+            targets[i] = random.nextInt(vertices);
+            weights[i] = random.nextInt(1000) / 8.0;
+        }
+        graph = IncidMatrixUndir.builder()
+                .vertices(vertices)
+                .storage(StorageMode.SPARSE)
+                .edges(sources, targets, weights)
+                .buildWeighted();
+        input = Files.createTempFile("edges", ".txt");
+        output = Files.createTempFile("edges", ".out");
+        EdgeListWriter.write(graph, input);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public IncidMatrixUndir.Builder parse() throws IOException {
+        return EdgeListReader.read(input);
+    }
+
+    @Benchmark
+    public IncidMatrixUndirWeight read() throws IOException {
+        return EdgeListReader.read(input).storage(StorageMode.SPARSE).buildWeighted();
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        EdgeListWriter.write(graph, output);
+        return Files.size(output);
+    }
+}
@@ -0,0 +1,297 @@
+package it.uniupo.graph.generator;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generators of synthetic graphs, for benchmarks and tests that need large and reproducible inputs.
+ * Each generator returns a {@link IncidMatrixUndir.Builder} holding the vertexes and the edges,
+ * to be built as weighted or unweighted graph with any storage mode.
+ * The same seed gives the same graph on every call, and the weights are drawn from a stream of their own,
+ * so changing the distribution of the weights does not change the edges.
+ * Vertexes are numbered from 0 and there are no self-loops.
+ */
+public final class GraphGenerator {
+
+    private static final double GRAPH500_A = 0.57;
+    private static final double GRAPH500_B = 0.19;
+    private static final double GRAPH500_C = 0.19;
+
+    private final long seed;
+    private final WeightDistribution weights;
+
+    private GraphGenerator(long seed, WeightDistribution weights) {
+        this.seed = seed;
+        this.weights = weights;
+    }
+
+    /**
+     * @param seed the seed of every graph generated
+     * @return a generator of graphs whose edges weigh 1.0.
+     */
+    public static GraphGenerator seeded(long seed) {
+        return new GraphGenerator(seed, WeightDistribution.constant(1.0));
+    }
+
+    /**
+     * @param weights the distribution of the weights
+     * @return a generator with the same seed and the given weights.
+     */
+    public GraphGenerator weights(WeightDistribution weights) {
+        if (weights == null)
+            throw new IllegalArgumentException("The weight distribution cannot be null");
+        return new GraphGenerator(seed, weights);
+    }
+
+    /**
+     * Erdős–Rényi G(n, m): edges distinct edges chosen uniformly among all the possible ones.
+     *
+     * @throws IllegalArgumentException if there are more edges than vertex pairs.
+     */
+    public IncidMatrixUndir.Builder erdosRenyi(int vertices, int edges) {
+        checkVertices(vertices);
+        if (edges < 0 || edges > (long) vertices * (vertices - 1) / 2)
+            throw new IllegalArgumentException(String.format("Cannot have %d edges on %d vertexes", edges, vertices));
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(edges, random.split());
+        PairSet chosen = new PairSet(edges);
+        while (generated.size < edges) {
+            int source = random.nextInt(vertices);
+            int target = random.nextInt(vertices);
+            if (source != target && chosen.add(Math.min(source, target), Math.max(source, target)))
+                generated.add(source, target);
+        }
+        return generated.builder(vertices);
+    }
+
+    /**
+     * Barabási–Albert preferential attachment: starting from a star of edgesPerVertex + 1 vertexes,
+     * each new vertex is linked to edgesPerVertex distinct vertexes chosen with probability
+     * proportional to their degree, which gives a power-law degree distribution.
+     *
+     * @throws IllegalArgumentException if edgesPerVertex is not between 1 and vertices - 1.
+     */
+    public IncidMatrixUndir.Builder barabasiAlbert(int vertices, int edgesPerVertex) {
+        checkVertices(vertices);
+        if (edgesPerVertex < 1 || edgesPerVertex >= vertices)
+            throw new IllegalArgumentException(String.format("Cannot link %d edges per vertex on %d vertexes", edgesPerVertex, vertices));
+        int edges = Math.toIntExact(edgesPerVertex + (long) (vertices - edgesPerVertex - 1) * edgesPerVertex);
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(edges, random.split());
+        // every endpoint of every edge: a vertex appears once per incident edge
+        int[] endpoints = new int[2 * edges];
+        int size = 0;
+        for (int i = 1; i <= edgesPerVertex; ++i) {
+            generated.add(0, i);
+            endpoints[size++] = 0;
+            endpoints[size++] = i;
+        }
+        int[] targets = new int[edgesPerVertex];
+        for (int source = edgesPerVertex + 1; source < vertices; ++source) {
+            for (int i = 0; i < edgesPerVertex; ) {
+                int target = endpoints[random.nextInt(size)];
+                if (!contains(targets, i, target))
+                    targets[i++] = target;
+            }
+            for (int target : targets) {
+                generated.add(source, target);
+                endpoints[size++] = source;
+                endpoints[size++] = target;
+            }
+        }
+        return generated.builder(vertices);
+    }
+
+    /**
+     * A rows x columns grid, each vertex linked to its right and lower neighbours:
+     * bounded degree and large diameter, like a road network.
+     * The vertex in row r and column c is r * columns + c.
+     *
+     * @throws IllegalArgumentException if a side is negative or the grid has too many vertexes.
+     */
+    public IncidMatrixUndir.Builder grid(int rows, int columns) {
+        if (rows < 0 || columns < 0)
+            throw new IllegalArgumentException("The sides of the grid cannot be negative");
+        int vertices = Math.toIntExact((long) rows * columns);
+        int edges = rows == 0 || columns == 0 ? 0 : Math.toIntExact((long) rows * (columns - 1) + (long) (rows - 1) * columns);
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(edges, random.split());
+        for (int r = 0; r < rows; ++r) {
+            for (int c = 0; c < columns; ++c) {
+                int vertex = r * columns + c;
+                if (c + 1 < columns)
+                    generated.add(vertex, vertex + 1);
+                if (r + 1 < rows)
+                    generated.add(vertex, vertex + columns);
+            }
+        }
+        return generated.builder(vertices);
+    }
+
+    /**
+     * R-MAT with the Graph500 probabilities (0.57, 0.19, 0.19, 0.05), see {@link #rmat(int, int, double, double, double)}.
+     */
+    public IncidMatrixUndir.Builder rmat(int scale, int edges) {
+        return this.rmat(scale, edges, GRAPH500_A, GRAPH500_B, GRAPH500_C);
+    }
+
+    /**
+     * R-MAT (recursive matrix) on 2^scale vertexes: each edge falls in a quadrant of the adjacency matrix
+     * with probabilities a, b, c and 1 - a - b - c, recursively down to a single cell,
+     * which gives a skewed, community-like graph. The vertexes are relabelled by a random permutation,
+     * so that the high-degree ones are not all at low labels. Self-loops are drawn again,
+     * duplicate edges are dropped when the graph is built, so it has at most edges edges.
+     *
+     * @throws IllegalArgumentException if scale is not between 0 and 30 or the probabilities are not valid
+     *                                  or give only self-loops.
+     */
+    public IncidMatrixUndir.Builder rmat(int scale, int edges, double a, double b, double c) {
+        if (scale < 0 || scale > 30)
+            throw new IllegalArgumentException("The scale must be between 0 and 30");
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1)
+            throw new IllegalArgumentException("The quadrant probabilities must be non-negative and add up to at most 1");
+        if (edges < 0 || (edges > 0 && scale == 0))
+            throw new IllegalArgumentException(String.format("Cannot have %d edges on %d vertexes", edges, 1 << scale));
+        if (edges > 0 && b + c == 0)
+            throw new IllegalArgumentException("With b + c = 0 every edge would be a self-loop");
+        int vertices = 1 << scale;
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(edges, random.split());
+        int[] labels = new int[vertices];
+        for (int i = 0; i < vertices; ++i)
+            labels[i] = i;
+        for (int i = vertices - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int label = labels[i];
+            labels[i] = labels[j];
+            labels[j] = label;
+        }
+        while (generated.size < edges) {
+            int source = 0;
+            int target = 0;
+            for (int bit = 1 << (scale - 1); bit > 0; bit >>>= 1) {
+                double quadrant = random.nextDouble();
+                if (quadrant >= a + b + c) {
+                    source |= bit;
+                    target |= bit;
+                } else if (quadrant >= a + b) {
+                    source |= bit;
+                } else if (quadrant >= a) {
+                    target |= bit;
+                }
+            }
+            if (source != target)
+                generated.add(labels[source], labels[target]);
+        }
+        return generated.builder(vertices);
+    }
+
+    /**
+     * The path 0 - 1 - ... - (vertices - 1): the deepest visit and the longest shortest paths.
+     */
+    public IncidMatrixUndir.Builder path(int vertices) {
+        checkVertices(vertices);
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(Math.max(vertices - 1, 0), random.split());
+        for (int i = 1; i < vertices; ++i)
+            generated.add(i - 1, i);
+        return generated.builder(vertices);
+    }
+
+    /**
+     * The star with center 0 linked to every other vertex: a single vertex of degree vertices - 1.
+     */
+    public IncidMatrixUndir.Builder star(int vertices) {
+        checkVertices(vertices);
+        SplittableRandom random = new SplittableRandom(seed);
+        Edges generated = new Edges(Math.max(vertices - 1, 0), random.split());
+        for (int i = 1; i < vertices; ++i)
+            generated.add(0, i);
+        return generated.builder(vertices);
+    }
+
+    private static void checkVertices(int vertices) {
+        if (vertices < 0)
+            throw new IllegalArgumentException("The number of vertexes cannot be negative");
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; ++i) {
+            if (values[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The edges generated so far, in arrays sized up front, with their weights.
+     */
+    private final class Edges {
+
+        private final int[] sources;
+        private final int[] targets;
+        private final double[] weightValues;
+        private final SplittableRandom random;
+        private int size;
+
+        Edges(int capacity, SplittableRandom random) {
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+            this.weightValues = new double[capacity];
+            this.random = random;
+        }
+
+        void add(int source, int target) {
+            sources[size] = source;
+            targets[size] = target;
+            weightValues[size] = weights.next(random);
+            ++size;
+        }
+
+        IncidMatrixUndir.Builder builder(int vertices) {
+            return IncidMatrixUndir.builder()
+                    .vertices(vertices)
+                    .edges(sources, targets, weightValues);
+        }
+    }
+
+    /**
+     * Open addressing set of vertex pairs, packed in a long, for the rejection sampling of G(n, m).
+     */
+    private static final class PairSet {
+
+        private static final long EMPTY = -1L;
+
+        private final long[] keys;
+        private final int mask;
+
+        PairSet(int expected) {
+            int capacity = Math.toIntExact(Long.highestOneBit(Math.max(2L * expected, 2) - 1) << 1);
+            this.keys = new long[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(keys, EMPTY);
+        }
+
+        /**
+         * @return true if the pair was not in the set.
+         */
+        boolean add(int low, int high) {
+            long key = ((long) low << 32) | high;
+            int slot = (int) (mix(key) & mask);
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key)
+                    return false;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            return true;
+        }
+
+        private static long mix(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return key ^ (key >>> 32);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package it.uniupo.graph.generator;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the weights drawn by a {@link GraphGenerator}, one per edge.
+ */
+@FunctionalInterface
+public interface WeightDistribution {
+
+    /**
+     * @param random the source of randomness, seeded by the generator
+     * @return the weight of the next edge.
+     */
+    double next(RandomGenerator random);
+
+    /**
+     * @return every edge of the same weight.
+     */
+    static WeightDistribution constant(double weight) {
+        return random -> weight;
+    }
+
+    /**
+     * @return weights uniform in [min, max).
+     * @throws IllegalArgumentException if min is not lower than max.
+     */
+    static WeightDistribution uniform(double min, double max) {
+        if (!(min < max))
+            throw new IllegalArgumentException("The minimum weight must be lower than the maximum");
+        return random -> random.nextDouble(min, max);
+    }
+
+    /**
+     * @return integral weights uniform in [min, max], both included.
+     * @throws IllegalArgumentException if min is greater than max.
+     */
+    static WeightDistribution uniformInt(int min, int max) {
+        if (min > max)
+            throw new IllegalArgumentException("The minimum weight cannot be greater than the maximum");
+        return random -> random.nextLong(min, (long) max + 1);
+    }
+
+    /**
+     * @return weights exponentially distributed with the given mean: many light edges, a few heavy ones.
+     * @throws IllegalArgumentException if the mean is not positive.
+     */
+    static WeightDistribution exponential(double mean) {
+        if (!(mean > 0))
+            throw new IllegalArgumentException("The mean weight must be positive");
+        return random -> mean * random.nextExponential();
+    }
+}
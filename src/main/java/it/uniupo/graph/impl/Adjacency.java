@@ -0,0 +1,66 @@
+package it.uniupo.graph.impl;
+
+/**
+ * Compressed sparse row adjacency of a graph, as read by the visits and the shortest path algorithms.
+ * The arcs of vertex v are the positions from {@link #start(int)} to {@link #end(int)} (excluded),
+ * each arc has the adjacent vertex and the column of its edge in the matrix.
+ * Every edge gives an arc to both of its endpoints (a self-loop gives a single one)
+ * and the neighbours of each vertex are sorted in ascending order.
+ */
+interface Adjacency {
+
+    /**
+     * @return the number of vertexes.
+     */
+    int vertexes();
+
+    /**
+     * @return the total number of arcs, twice the edges that are not self-loops.
+     */
+    int arcs();
+
+    /**
+     * @return the position of the first arc of the vertex.
+     */
+    int start(int vertex);
+
+    /**
+     * @return the position after the last arc of the vertex.
+     */
+    int end(int vertex);
+
+    default int degree(int vertex) {
+        return this.end(vertex) - this.start(vertex);
+    }
+
+    /**
+     * @return the vertex the arc leads to.
+     */
+    int neighbor(int arc);
+
+    /**
+     * @return the column of the edge of the arc.
+     */
+    int column(int arc);
+
+    /**
+     * Binary search among the sorted neighbours of u, O(log deg).
+     *
+     * @return the column of the edge between u and v, -1 if there is none.
+     */
+    default int columnBetween(int u, int v) {
+        int low = this.start(u);
+        int high = this.end(u) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int neighbor = this.neighbor(middle);
+            if (neighbor < v)
+                low = middle + 1;
+            else if (neighbor > v)
+                high = middle - 1;
+            else
+                return this.column(middle);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,191 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Storage of an unweighted graph as a V x V adjacency bitmap, one long[] row for each vertex,
+ * next to the endpoints of the columns: a cell of an unweighted matrix is only ever incident or not,
+ * so one bit per pair of vertexes replaces the 8 bytes per cell of the V x E dense matrix.
+ * Adjacency tests are a single word operation and the neighbours of a vertex are visited
+ * by scanning the words of its row, O(V / 64 + deg). Every weight is 0.0 and cannot be changed.
+ * Like the dense storage, the incident columns of a row are found by scanning the endpoints, O(E).
+ * Row capacity doubles when it's exhausted, every bit beyond the used rows is kept clear.
+ */
+class BitPackedIncidenceStorage implements IncidenceStorage {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[][] bits;
+    private int[] sources;
+    private int[] targets;
+    private int rows;
+    private int columns;
+
+    /**
+     * Allocates an empty matrix, with room for the given number of rows and columns.
+     *
+     * @param rowCapacity    number of vertexes that fit before growing
+     * @param columnCapacity number of edges that fit before growing
+     */
+    BitPackedIncidenceStorage(int rowCapacity, int columnCapacity) {
+        this.bits = new long[Math.max(rowCapacity, DEFAULT_CAPACITY)][];
+        this.sources = new int[Math.max(columnCapacity, DEFAULT_CAPACITY)];
+        this.targets = new int[sources.length];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return this.isIncident(row, column) ? 0.0 : NOT_INCIDENT;
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return sources[column] == row || targets[column] == row;
+    }
+
+    /**
+     * A single bit test, the lookup is never called.
+     */
+    @Override
+    public boolean isAdjacent(int row, int other, IntBinaryOperator lookup) {
+        return (bits[row][other >>> 6] & (1L << other)) != 0;
+    }
+
+    /**
+     * Doubles the length of every row when the new row does not fit: each doubling copies the whole bitmap,
+     * O(V^2 / 64) words, so adding V vertexes one at a time is O(V^2 / 64) amortized; size the storage up front
+     * (see {@link IncidMatrixUndir.Builder}) to avoid the copies.
+     */
+    @Override
+    public int appendRow() {
+        if (rows == bits.length) {
+            bits = Arrays.copyOf(bits, bits.length * 2);
+            int words = words(bits.length);
+            for (int i = 0; i < rows; ++i)
+                bits[i] = Arrays.copyOf(bits[i], words);
+        }
+        bits[rows] = new long[words(bits.length)];
+        return rows++;
+    }
+
+    /**
+     * Keeps the columns whose endpoints both survive, in their order, relabels them,
+     * then rebuilds the bitmap of the remaining rows from the columns, O(V^2 / 64 + E).
+     */
+    @Override
+    public void removeRows(boolean[] removed) {
+        int[] labels = new int[rows];
+        int kept = 0;
+        for (int i = 0; i < rows; ++i) {
+            if (!removed[i])
+                labels[i] = kept++;
+        }
+        int keptColumns = 0;
+        for (int i = 0; i < columns; ++i) {
+            if (!removed[sources[i]] && !removed[targets[i]]) {
+                sources[keptColumns] = labels[sources[i]];
+                targets[keptColumns] = labels[targets[i]];
+                ++keptColumns;
+            }
+        }
+        columns = keptColumns;
+        for (int i = 0; i < kept; ++i)
+            Arrays.fill(bits[i], 0L);
+        Arrays.fill(bits, kept, rows, null);
+        rows = kept;
+        for (int i = 0; i < columns; ++i)
+            this.link(sources[i], targets[i]);
+    }
+
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        if (columns == sources.length) {
+            sources = Arrays.copyOf(sources, columns * 2);
+            targets = Arrays.copyOf(targets, columns * 2);
+        }
+        sources[columns] = source;
+        targets[columns] = target;
+        this.link(source, target);
+        return columns++;
+    }
+
+    @Override
+    public void removeColumn(int column) {
+        int source = sources[column];
+        int target = targets[column];
+        bits[source][target >>> 6] &= ~(1L << target);
+        bits[target][source >>> 6] &= ~(1L << source);
+        int last = --columns;
+        sources[column] = sources[last];
+        targets[column] = targets[last];
+    }
+
+    @Override
+    public int source(int column) {
+        return sources[column];
+    }
+
+    @Override
+    public int target(int column) {
+        return targets[column];
+    }
+
+    @Override
+    public double weight(int column) {
+        return 0.0;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the edges of a bit-packed graph have no weight.
+     */
+    @Override
+    public void setWeight(int column, double weight) {
+        throw new UnsupportedOperationException("A BIT_PACKED graph has no weights");
+    }
+
+    /**
+     * Scans the endpoints of every column, O(E) whatever the degree of the row (there are no per-row lists of columns),
+     * a vector of endpoints at a time when it can, see {@link RowScan}.
+     */
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        RowScan.forEachEqual(sources, targets, columns, row, action);
+    }
+
+    /**
+     * Scans the words of the row, skipping the empty ones, O(V / 64 + deg).
+     */
+    @Override
+    public void forEachNeighbor(int row, IntConsumer action) {
+        long[] words = bits[row];
+        int used = words(rows);
+        for (int i = 0; i < used; ++i) {
+            long word = words[i];
+            while (word != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    private void link(int source, int target) {
+        bits[source][target >>> 6] |= 1L << target;
+        bits[target][source >>> 6] |= 1L << source;
+    }
+
+    private static int words(int rowCapacity) {
+        return (rowCapacity + 63) >>> 6;
+    }
+}
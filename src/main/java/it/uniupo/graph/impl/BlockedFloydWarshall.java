@@ -0,0 +1,138 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Floyd-Warshall over flat row-major distance/next-hop tables, split in square tiles of
+ * {@link #TILE} x {@link #TILE} cells (32 KB of distances) so that the k-loop of a tile stays in cache.
+ * For each diagonal tile the three dependent phases are run in order:
+ * the diagonal tile itself, then the tiles of its row and column, then every other tile.
+ * The tiles of the second and third phase only read tiles finished in the previous phases,
+ * so they run in parallel on the common ForkJoinPool.
+ * Paths are compared by distance and then by number of edges: with edges of weight 0 the tiles
+ * would otherwise pick next hops that are shortest one by one but go around in circles together,
+ * with the edge count as second key every next hop is strictly closer to the target.
+ */
+final class BlockedFloydWarshall {
+
+    static final int TILE = 64;
+
+    /**
+     * The largest number of vertexes whose V x V tables fit in a Java array, floor(sqrt(Integer.MAX_VALUE)).
+     */
+    static final int MAX_VERTICES = 46340;
+
+    private final int size;
+    private final int tiles;
+    private final double[] distances;
+    private final int[] nextHops;
+    private final int[] lengths;
+
+    private BlockedFloydWarshall(int size) {
+        this.size = size;
+        this.tiles = (size + TILE - 1) / TILE;
+        int cells = cells(size);
+        this.distances = new double[cells];
+        this.nextHops = new int[cells];
+        this.lengths = new int[cells];
+    }
+
+    /**
+     * @return the number of cells of the V x V tables.
+     * @throws IllegalArgumentException if they don't fit in a Java array, more than {@link #MAX_VERTICES} vertexes.
+     */
+    private static int cells(int size) {
+        try {
+            return Math.multiplyExact(size, size);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Floyd-Warshall supports at most %d vertexes, the graph has %d", MAX_VERTICES, size), e);
+        }
+    }
+
+    /**
+     * The weights must not be negative, in an undirected graph a negative edge is a negative cycle.
+     *
+     * @param matrix the incidence matrix of the graph
+     * @return the all-pairs shortest paths of the graph.
+     * @throws IllegalArgumentException if the graph has more than {@link #MAX_VERTICES} vertexes.
+     */
+    static ShortestPathMatrix solve(IncidenceStorage matrix) {
+        BlockedFloydWarshall floydWarshall = new BlockedFloydWarshall(matrix.rows());
+        floydWarshall.initialize(matrix);
+        floydWarshall.run();
+        return new ShortestPathMatrix(floydWarshall.size, floydWarshall.distances, floydWarshall.nextHops);
+    }
+
+    private void initialize(IncidenceStorage matrix) {
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(nextHops, -1);
+        for (int i = 0; i < size; ++i) {
+            distances[i * size + i] = 0.0;
+            nextHops[i * size + i] = i;
+        }
+        for (int i = 0; i < matrix.columns(); ++i) {
+            int source = matrix.source(i);
+            int target = matrix.target(i);
+            double weight = matrix.weight(i);
+            if (source != target && weight < distances[source * size + target]) {
+                distances[source * size + target] = distances[target * size + source] = weight;
+                lengths[source * size + target] = lengths[target * size + source] = 1;
+                nextHops[source * size + target] = target;
+                nextHops[target * size + source] = source;
+            }
+        }
+    }
+
+    private void run() {
+        for (int k = 0; k < tiles; ++k) {
+            int pivot = k;
+            this.relax(pivot, pivot, pivot);
+            IntStream.range(0, tiles)
+                    .parallel()
+                    .filter(tile -> tile != pivot)
+                    .forEach(tile -> {
+                        this.relax(pivot, tile, pivot);
+                        this.relax(tile, pivot, pivot);
+                    });
+            IntStream.range(0, tiles * tiles)
+                    .parallel()
+                    .filter(tile -> tile / tiles != pivot && tile % tiles != pivot)
+                    .forEach(tile -> this.relax(tile / tiles, tile % tiles, pivot));
+        }
+    }
+
+    /**
+     * Relaxes the tile (row, column) through every vertex of the pivot tile.
+     */
+    private void relax(int rowTile, int columnTile, int pivotTile) {
+        int rowStart = rowTile * TILE;
+        int rowEnd = Math.min(rowStart + TILE, size);
+        int columnStart = columnTile * TILE;
+        int columnEnd = Math.min(columnStart + TILE, size);
+        int pivotStart = pivotTile * TILE;
+        int pivotEnd = Math.min(pivotStart + TILE, size);
+        for (int k = pivotStart; k < pivotEnd; ++k) {
+            int kRow = k * size;
+            for (int i = rowStart; i < rowEnd; ++i) {
+                int iRow = i * size;
+                double throughK = distances[iRow + k];
+                if (throughK == Double.POSITIVE_INFINITY)
+                    continue;
+                int hop = nextHops[iRow + k];
+                int lengthToK = lengths[iRow + k];
+                for (int j = columnStart; j < columnEnd; ++j) {
+                    double distance = throughK + distances[kRow + j];
+                    if (distance > distances[iRow + j])
+                        continue;
+                    int length = lengthToK + lengths[kRow + j];
+                    if (distance < distances[iRow + j] || length < lengths[iRow + j]) {
+                        distances[iRow + j] = distance;
+                        lengths[iRow + j] = length;
+                        nextHops[iRow + j] = hop;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package it.uniupo.graph.impl;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find over the vertexes 0..n-1, for unions run by many threads at once.
+ * Roots are linked with a compare-and-set, always the greater root under the lower one,
+ * so the parent of a vertex only decreases and no cycle can be created;
+ * finds halve the path with compare-and-sets that are allowed to fail.
+ */
+final class ConcurrentDisjointSet {
+
+    private final AtomicIntegerArray parents;
+
+    /**
+     * @param size the number of vertexes, each one starts in its own set
+     */
+    ConcurrentDisjointSet(int size) {
+        this.parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; ++i)
+            parents.set(i, i);
+    }
+
+    /**
+     * @return the current representative of the set of the vertex.
+     */
+    int find(int vertex) {
+        int parent = parents.get(vertex);
+        while (parent != vertex) {
+            int grandparent = parents.get(parent);
+            parents.compareAndSet(vertex, parent, grandparent);
+            vertex = grandparent;
+            parent = parents.get(vertex);
+        }
+        return vertex;
+    }
+
+    /**
+     * Merges the sets of the two vertexes, retrying when another thread has moved one of the roots.
+     */
+    void union(int u, int v) {
+        while (true) {
+            int rootU = this.find(u);
+            int rootV = this.find(v);
+            if (rootU == rootV)
+                return;
+            if (rootU < rootV) {
+                int root = rootU;
+                rootU = rootV;
+                rootV = root;
+            }
+            if (parents.compareAndSet(rootU, rootU, rootV))
+                return;
+        }
+    }
+}
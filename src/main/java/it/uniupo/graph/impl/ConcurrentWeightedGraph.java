@@ -0,0 +1,285 @@
+package it.uniupo.graph.impl;
+
+import upo.graph.base.Edge;
+import upo.graph.base.VisitResult;
+import upo.graph.base.WeightedGraph;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Weighted graph shared between many reader threads and one or more writers, copy-on-write:
+ * the graph is an immutable {@link IncidMatrixUndirWeight} snapshot published through a volatile reference.
+ * Readers never block and each call sees a single snapshot from start to end, never a half-done change;
+ * writers are serialized by a lock, each change copies the current snapshot in O(V + E), applies itself
+ * to the copy and publishes it, so a change that throws publishes nothing.
+ * As every single change pays for a whole copy, apply many changes with {@link #update(Consumer)},
+ * a single copy for all of them: meant for graphs read far more often than they are changed.
+ * The snapshots are kept on the heap, an OFF_HEAP graph is copied as SPARSE.
+ * Note that {@link Edge#getEdgeByVertexes(Integer, Integer)} caches the edges in a static set that is not thread-safe:
+ * {@link #getEdges()}, equals and hashCode create their edges holding the lock of the Edge class
+ * (see {@link IncidMatrixUndir#getEdges()}), {@link #forEachEdge(IncidMatrixUndir.EdgeConsumer)}
+ * and the int overloads of the changes create none, callers creating edges from many threads should hold the same lock.
+ */
+public final class ConcurrentWeightedGraph implements WeightedGraph {
+
+    private final StorageMode storageMode;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile IncidMatrixUndirWeight current;
+
+    /**
+     * An empty graph, stored sparsely.
+     */
+    public ConcurrentWeightedGraph() {
+        this(new IncidMatrixUndirWeight(StorageMode.SPARSE));
+    }
+
+    /**
+     * @param graph the initial vertexes and edges, copied: later changes to it are not seen.
+     */
+    public ConcurrentWeightedGraph(IncidMatrixUndirWeight graph) {
+        this.storageMode = graph.getStorageMode().resultMode();
+        this.current = this.copy(graph);
+        this.current.freeze();
+    }
+
+    /**
+     * @return the current snapshot, which stays the same whatever the later changes;
+     * it's read-only, every change throws UnsupportedOperationException.
+     */
+    public IncidMatrixUndirWeight snapshot() {
+        return current;
+    }
+
+    /**
+     * Applies the changes to a copy of the current snapshot and publishes it, a single copy for all of them.
+     * If the changes throw, the current snapshot is kept.
+     *
+     * @param changes the changes, applied to a private copy of the graph
+     */
+    public void update(Consumer<? super IncidMatrixUndirWeight> changes) {
+        this.write(graph -> {
+            changes.accept(graph);
+            return null;
+        });
+    }
+
+    private <T> T write(Function<IncidMatrixUndirWeight, T> change) {
+        writeLock.lock();
+        try {
+            IncidMatrixUndirWeight next = this.copy(current);
+            T result = change.apply(next);
+            next.freeze();
+            current = next;
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private IncidMatrixUndirWeight copy(IncidMatrixUndirWeight graph) {
+        IncidMatrixUndirWeight copy = new IncidMatrixUndirWeight(storageMode);
+        copy.copyOf(graph);
+        return copy;
+    }
+
+    @Override
+    public int addVertex() {
+        return this.write(IncidMatrixUndir::addVertex);
+    }
+
+    @Override
+    public void removeVertex(Integer integer) throws NoSuchElementException {
+        this.update(graph -> graph.removeVertex(integer));
+    }
+
+    @Override
+    public void addEdge(Edge edge) throws IllegalArgumentException {
+        this.update(graph -> graph.addEdge(edge));
+    }
+
+    /**
+     * Adds the edge with its weight, or changes the weight if the graph already contains it.
+     *
+     * @throws IllegalArgumentException if a vertex does not belong to the graph.
+     */
+    public void addEdge(int source, int target, double weight) throws IllegalArgumentException {
+        this.update(graph -> {
+            if (!graph.containsVertex(source) || !graph.containsVertex(target))
+                throw new IllegalArgumentException("Cannot have an edge with invalid source/target");
+            graph.matrix.setWeight(graph.addColumn(source, target, weight), weight);
+        });
+    }
+
+    @Override
+    public void removeEdge(Edge edge) throws IllegalArgumentException, NoSuchElementException {
+        this.update(graph -> graph.removeEdge(edge));
+    }
+
+    @Override
+    public void setEdgeWeight(Edge edge, double weight) throws IllegalArgumentException, NoSuchElementException {
+        this.update(graph -> graph.setEdgeWeight(edge, weight));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a vertex does not belong to the graph.
+     * @throws NoSuchElementException   if the graph does not contain the edge.
+     */
+    public void setEdgeWeight(int source, int target, double weight) {
+        this.update(graph -> {
+            if (!graph.containsVertex(source) || !graph.containsVertex(target))
+                throw new IllegalArgumentException("Make sure all the vertexes are in the Graph");
+            int column = graph.edgeIndex.get(source, target);
+            if (column < 0)
+                throw new NoSuchElementException(String.format("The edge (%d, %d) does not belong to the graph", source, target));
+            graph.matrix.setWeight(column, weight);
+        });
+    }
+
+    @Override
+    public Set<Integer> getVertices() {
+        return current.getVertices();
+    }
+
+    @Override
+    public Set<Edge> getEdges() {
+        return current.getEdges();
+    }
+
+    /**
+     * Calls the action with every edge of the current snapshot, see {@link IncidMatrixUndir#forEachEdge(IncidMatrixUndir.EdgeConsumer)}.
+     *
+     * @param action the consumer of the edges
+     */
+    public void forEachEdge(IncidMatrixUndir.EdgeConsumer action) {
+        current.forEachEdge(action);
+    }
+
+    @Override
+    public boolean containsVertex(Integer integer) {
+        return current.containsVertex(integer);
+    }
+
+    @Override
+    public boolean containsEdge(Edge edge) throws IllegalArgumentException {
+        return current.containsEdge(edge);
+    }
+
+    @Override
+    public Set<Integer> getAdjacent(Integer integer) throws NoSuchElementException {
+        return current.getAdjacent(integer);
+    }
+
+    @Override
+    public boolean isAdjacent(Integer integer, Integer integer1) throws IllegalArgumentException {
+        return current.isAdjacent(integer, integer1);
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean isCyclic() {
+        return current.isCyclic();
+    }
+
+    @Override
+    public boolean isDAG() {
+        return current.isDAG();
+    }
+
+    @Override
+    public VisitResult getBFSTree(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getBFSTree(integer);
+    }
+
+    @Override
+    public VisitResult getDFSTree(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getDFSTree(integer);
+    }
+
+    @Override
+    public VisitResult getDFSTOTForest(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getDFSTOTForest(integer);
+    }
+
+    @Override
+    public VisitResult getDFSTOTForest(Integer[] integers) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getDFSTOTForest(integers);
+    }
+
+    @Override
+    public Integer[] topologicalSort() throws UnsupportedOperationException {
+        return current.topologicalSort();
+    }
+
+    @Override
+    public Set<Set<Integer>> stronglyConnectedComponents() throws UnsupportedOperationException {
+        return current.stronglyConnectedComponents();
+    }
+
+    @Override
+    public Set<Set<Integer>> connectedComponents() throws UnsupportedOperationException {
+        return current.connectedComponents();
+    }
+
+    @Override
+    public double getEdgeWeight(Edge edge) throws IllegalArgumentException, NoSuchElementException {
+        return current.getEdgeWeight(edge);
+    }
+
+    @Override
+    public WeightedGraph getBellmanFordShortestPaths(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getBellmanFordShortestPaths(integer);
+    }
+
+    @Override
+    public WeightedGraph getDijkstraShortestPaths(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getDijkstraShortestPaths(integer);
+    }
+
+    @Override
+    public WeightedGraph getPrimMST(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return current.getPrimMST(integer);
+    }
+
+    @Override
+    public WeightedGraph getKruskalMST() throws UnsupportedOperationException {
+        return current.getKruskalMST();
+    }
+
+    @Override
+    public WeightedGraph getFloydWarshallShortestPaths() throws UnsupportedOperationException {
+        return current.getFloydWarshallShortestPaths();
+    }
+
+    /**
+     * @return true if the object is a graph with the same vertexes, edges and weights as the current snapshot.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof ConcurrentWeightedGraph other)
+            return current.equals(other.current);
+        return current.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return current.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return current.toString();
+    }
+}
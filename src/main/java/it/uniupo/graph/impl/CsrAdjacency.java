@@ -0,0 +1,111 @@
+package it.uniupo.graph.impl;
+
+/**
+ * {@link Adjacency} of an incidence matrix kept in heap arrays, derived in O(V + E).
+ * The neighbours of each vertex are sorted in ascending order, so visits are deterministic.
+ * The view is immutable, it's rebuilt after the graph changes.
+ */
+final class CsrAdjacency implements Adjacency {
+
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] columns;
+
+    private CsrAdjacency(int[] offsets, int[] neighbors, int[] columns) {
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.columns = columns;
+    }
+
+    /**
+     * Sorts the arcs with two stable counting sorts, first by neighbour then by vertex.
+     *
+     * @param matrix the incidence matrix
+     * @return the adjacency of the matrix.
+     */
+    static CsrAdjacency of(IncidenceStorage matrix) {
+        int vertexes = matrix.rows();
+        int edges = matrix.columns();
+        int arcs = 0;
+        int[] byNeighbor = new int[vertexes + 1];
+        for (int i = 0; i < edges; ++i) {
+            int source = matrix.source(i);
+            int target = matrix.target(i);
+            ++byNeighbor[target + 1];
+            ++arcs;
+            if (source != target) {
+                ++byNeighbor[source + 1];
+                ++arcs;
+            }
+        }
+        for (int v = 0; v < vertexes; ++v)
+            byNeighbor[v + 1] += byNeighbor[v];
+        int[] arcVertex = new int[arcs];
+        int[] arcNeighbor = new int[arcs];
+        int[] arcColumn = new int[arcs];
+        for (int i = 0; i < edges; ++i) {
+            int source = matrix.source(i);
+            int target = matrix.target(i);
+            int slot = byNeighbor[target]++;
+            arcVertex[slot] = source;
+            arcNeighbor[slot] = target;
+            arcColumn[slot] = i;
+            if (source != target) {
+                slot = byNeighbor[source]++;
+                arcVertex[slot] = target;
+                arcNeighbor[slot] = source;
+                arcColumn[slot] = i;
+            }
+        }
+        int[] offsets = new int[vertexes + 1];
+        for (int i = 0; i < arcs; ++i)
+            ++offsets[arcVertex[i] + 1];
+        for (int v = 0; v < vertexes; ++v)
+            offsets[v + 1] += offsets[v];
+        int[] next = new int[vertexes];
+        System.arraycopy(offsets, 0, next, 0, vertexes);
+        int[] neighbors = new int[arcs];
+        int[] columns = new int[arcs];
+        for (int i = 0; i < arcs; ++i) {
+            int slot = next[arcVertex[i]]++;
+            neighbors[slot] = arcNeighbor[i];
+            columns[slot] = arcColumn[i];
+        }
+        return new CsrAdjacency(offsets, neighbors, columns);
+    }
+
+    @Override
+    public int vertexes() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int arcs() {
+        return neighbors.length;
+    }
+
+    @Override
+    public int start(int vertex) {
+        return offsets[vertex];
+    }
+
+    @Override
+    public int end(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public int neighbor(int arc) {
+        return neighbors[arc];
+    }
+
+    @Override
+    public int column(int arc) {
+        return columns[arc];
+    }
+}
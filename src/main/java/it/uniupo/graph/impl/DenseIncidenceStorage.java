@@ -0,0 +1,157 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Primitive storage of an incidence matrix: one double[] row for each vertex, one column for each edge.
+ * A cell holds the weight of the edge when the vertex is one of its endpoints,
+ * {@link #NOT_INCIDENT} otherwise. Rows are separate arrays so that the number of cells
+ * is not bounded by the maximum length of a single Java array.
+ * Rows and columns have a capacity that doubles when it's exhausted (like an ArrayList),
+ * every cell beyond the used columns is kept {@link #NOT_INCIDENT}.
+ */
+class DenseIncidenceStorage implements IncidenceStorage {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private double[][] cells;
+    private int[] sources;
+    private int[] targets;
+    private int rows;
+    private int columns;
+
+    /**
+     * Allocates an empty matrix, with room for the given number of rows and columns.
+     *
+     * @param rowCapacity    number of vertexes that fit before growing
+     * @param columnCapacity number of edges that fit before growing
+     */
+    DenseIncidenceStorage(int rowCapacity, int columnCapacity) {
+        this.cells = new double[Math.max(rowCapacity, DEFAULT_CAPACITY)][];
+        this.sources = new int[Math.max(columnCapacity, DEFAULT_CAPACITY)];
+        this.targets = new int[sources.length];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return cells[row][column];
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return cells[row][column] < NOT_INCIDENT;
+    }
+
+    @Override
+    public int appendRow() {
+        if (rows == cells.length)
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        double[] row = new double[sources.length];
+        Arrays.fill(row, NOT_INCIDENT);
+        cells[rows] = row;
+        return rows++;
+    }
+
+    /**
+     * Removes the columns of the marked rows scanning the endpoints backwards (the column swapped
+     * into place has already been checked), then moves the remaining rows up without copying their cells
+     * and relabels the endpoints through a table, O(V + E).
+     */
+    @Override
+    public void removeRows(boolean[] removed) {
+        for (int i = columns - 1; i >= 0; --i) {
+            if (removed[sources[i]] || removed[targets[i]])
+                this.removeColumn(i);
+        }
+        int[] labels = new int[rows];
+        int kept = 0;
+        for (int i = 0; i < rows; ++i) {
+            if (!removed[i]) {
+                cells[kept] = cells[i];
+                labels[i] = kept++;
+            }
+        }
+        Arrays.fill(cells, kept, rows, null);
+        rows = kept;
+        for (int i = 0; i < columns; ++i) {
+            sources[i] = labels[sources[i]];
+            targets[i] = labels[targets[i]];
+        }
+    }
+
+    /**
+     * Adds a column doubling the capacity of each row when it's full,
+     * only the two endpoint cells of the new column are written.
+     */
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        if (columns == sources.length) {
+            int capacity = sources.length * 2;
+            for (int i = 0; i < rows; ++i) {
+                cells[i] = Arrays.copyOf(cells[i], capacity);
+                Arrays.fill(cells[i], sources.length, capacity, NOT_INCIDENT);
+            }
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+        sources[columns] = source;
+        targets[columns] = target;
+        cells[source][columns] = cells[target][columns] = weight;
+        return columns++;
+    }
+
+    /**
+     * Only the endpoint cells of the removed and of the moved column are written.
+     */
+    @Override
+    public void removeColumn(int column) {
+        int last = columns - 1;
+        cells[sources[column]][column] = cells[targets[column]][column] = NOT_INCIDENT;
+        if (column != last) {
+            sources[column] = sources[last];
+            targets[column] = targets[last];
+            cells[sources[column]][column] = cells[targets[column]][column] = cells[sources[last]][last];
+            cells[sources[last]][last] = cells[targets[last]][last] = NOT_INCIDENT;
+        }
+        columns = last;
+    }
+
+    @Override
+    public int source(int column) {
+        return sources[column];
+    }
+
+    @Override
+    public int target(int column) {
+        return targets[column];
+    }
+
+    @Override
+    public double weight(int column) {
+        return cells[sources[column]][column];
+    }
+
+    @Override
+    public void setWeight(int column, double weight) {
+        cells[sources[column]][column] = cells[targets[column]][column] = weight;
+    }
+
+    /**
+     * Scans the whole row, O(E), a vector of cells at a time when it can, see {@link RowScan}.
+     */
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        RowScan.forEachBelow(cells[row], columns, NOT_INCIDENT, action);
+    }
+}
@@ -0,0 +1,140 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+
+/**
+ * Iterative DFS over a CSR adjacency, with an explicit int[] stack and, for each vertex,
+ * a cursor on its next arc: no recursion (no StackOverflowError on deep graphs)
+ * and nothing allocated per visited vertex.
+ * The neighbours are visited in ascending order and the clock ticks once when a vertex
+ * is discovered and once when it's finished, like the recursive visit.
+ * Colors, times and the clock are kept between visits, so many roots can share them.
+ */
+final class DepthFirstSearch {
+
+    static final byte WHITE = 0;
+    static final byte GRAY = 1;
+    static final byte BLACK = 2;
+
+    private final Adjacency adjacency;
+    private final byte[] colors;
+    private final int[] parents;
+    private final int[] startTimes;
+    private final int[] endTimes;
+    private final int[] stack;
+    private final int[] cursors;
+    private int time;
+    private int closingNeighbor = -1;
+
+    /**
+     * @param adjacency the graph, every vertex starts WHITE and the clock at 0
+     */
+    DepthFirstSearch(Adjacency adjacency) {
+        int vertexes = adjacency.vertexes();
+        this.adjacency = adjacency;
+        this.colors = new byte[vertexes];
+        this.parents = new int[vertexes];
+        this.startTimes = new int[vertexes];
+        this.endTimes = new int[vertexes];
+        this.stack = new int[vertexes];
+        this.cursors = new int[vertexes];
+        Arrays.fill(parents, -1);
+    }
+
+    /**
+     * Visits every WHITE vertex reachable from the root, which must be WHITE.
+     */
+    void visit(int root) {
+        this.run(root, false);
+    }
+
+    /**
+     * Visits from the root like {@link #visit(int)}, stopping at the first edge that leads back
+     * to a GRAY vertex other than the parent: in an undirected graph that edge closes a cycle,
+     * made of the edge and of the tree path from the GRAY vertex down to the current one.
+     * When it stops, the vertexes on the stack are left GRAY.
+     *
+     * @return the vertex whose edge closes a cycle, -1 if no cycle has been found.
+     */
+    int visitUntilCycle(int root) {
+        return this.run(root, true);
+    }
+
+    /**
+     * @return the GRAY endpoint of the edge that closed the last cycle found.
+     */
+    int closingNeighbor() {
+        return closingNeighbor;
+    }
+
+    private int run(int root, boolean stopAtCycle) {
+        int top = 0;
+        this.discover(root, -1);
+        stack[top++] = root;
+        while (top > 0) {
+            int vertex = stack[top - 1];
+            if (cursors[vertex] < adjacency.end(vertex)) {
+                int adjacent = adjacency.neighbor(cursors[vertex]++);
+                if (colors[adjacent] == WHITE) {
+                    this.discover(adjacent, vertex);
+                    stack[top++] = adjacent;
+                } else if (stopAtCycle && colors[adjacent] == GRAY && adjacent != parents[vertex]) {
+                    closingNeighbor = adjacent;
+                    return vertex;
+                }
+            } else {
+                colors[vertex] = BLACK;
+                endTimes[vertex] = ++time;
+                --top;
+            }
+        }
+        return -1;
+    }
+
+    private void discover(int vertex, int parent) {
+        colors[vertex] = GRAY;
+        parents[vertex] = parent;
+        startTimes[vertex] = ++time;
+        cursors[vertex] = adjacency.start(vertex);
+    }
+
+    byte color(int vertex) {
+        return colors[vertex];
+    }
+
+    /**
+     * Marks a vertex as already visited, so that the next visits skip it.
+     */
+    void exclude(int vertex) {
+        colors[vertex] = BLACK;
+    }
+
+    /**
+     * @return the parent of the vertex, -1 for the roots and the vertexes not visited.
+     */
+    int parent(int vertex) {
+        return parents[vertex];
+    }
+
+    int startTime(int vertex) {
+        return startTimes[vertex];
+    }
+
+    int endTime(int vertex) {
+        return endTimes[vertex];
+    }
+
+    /**
+     * @return the last tick of the clock.
+     */
+    int time() {
+        return time;
+    }
+
+    /**
+     * @param time the last tick of the clock, the next visit starts from time + 1
+     */
+    void setTime(int time) {
+        this.time = time;
+    }
+}
@@ -0,0 +1,145 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Level-synchronous BFS over a CSR adjacency, expanding each level in parallel.
+ * A level is expanded top-down (the frontier claims its unvisited neighbours) while the frontier
+ * is small, and bottom-up (every unvisited vertex looks for a neighbour in the frontier, kept as a bitset)
+ * when the edges of the frontier outweigh the edges left to explore, as in Beamer's direction-optimizing BFS.
+ * In both directions the parent of a vertex is its lowest neighbour in the previous level,
+ * so the tree does not depend on the direction, on the threads nor on the schedule.
+ */
+final class DirectionOptimizingBfs {
+
+    private static final int TOP_DOWN_FACTOR = 14;
+    private static final int BOTTOM_UP_FACTOR = 24;
+
+    private final Adjacency adjacency;
+    private final ForkJoinPool pool;
+    private final int[] levels;
+    private final AtomicIntegerArray parents;
+    private final long[] frontierBits;
+    private int[] frontier;
+    private int[] next;
+    private int frontierSize;
+    private final AtomicInteger nextSize = new AtomicInteger();
+
+    private DirectionOptimizingBfs(Adjacency adjacency, ForkJoinPool pool) {
+        int vertexes = adjacency.vertexes();
+        this.adjacency = adjacency;
+        this.pool = pool;
+        this.levels = new int[vertexes];
+        this.parents = new AtomicIntegerArray(vertexes);
+        this.frontierBits = new long[(vertexes + 63) >>> 6];
+        this.frontier = new int[vertexes];
+        this.next = new int[vertexes];
+        Arrays.fill(levels, -1);
+        for (int i = 0; i < vertexes; ++i)
+            parents.set(i, -1);
+    }
+
+    /**
+     * @param adjacency the graph
+     * @param source    the first vertex
+     * @param pool      the pool expanding the levels
+     * @return the finished visit.
+     */
+    static DirectionOptimizingBfs visit(Adjacency adjacency, int source, ForkJoinPool pool) {
+        DirectionOptimizingBfs bfs = new DirectionOptimizingBfs(adjacency, pool);
+        bfs.run(source);
+        return bfs;
+    }
+
+    /**
+     * @return the distance in edges from the source, -1 if the vertex has not been reached.
+     */
+    int level(int vertex) {
+        return levels[vertex];
+    }
+
+    /**
+     * @return the parent of the vertex in the tree, -1 for the source and the vertexes not reached.
+     */
+    int parent(int vertex) {
+        return parents.get(vertex);
+    }
+
+    private void run(int source) {
+        levels[source] = 0;
+        frontier[0] = source;
+        frontierSize = 1;
+        long unexploredArcs = adjacency.arcs() - adjacency.degree(source);
+        boolean bottomUp = false;
+        for (int level = 1; frontierSize > 0; ++level) {
+            long frontierArcs = 0;
+            for (int i = 0; i < frontierSize; ++i)
+                frontierArcs += adjacency.degree(frontier[i]);
+            if (!bottomUp && frontierArcs > unexploredArcs / TOP_DOWN_FACTOR)
+                bottomUp = true;
+            else if (bottomUp && frontierSize < levels.length / BOTTOM_UP_FACTOR)
+                bottomUp = false;
+
+            nextSize.set(0);
+            if (bottomUp)
+                this.bottomUpStep();
+            else
+                this.topDownStep();
+
+            int[] reached = next;
+            next = frontier;
+            frontier = reached;
+            frontierSize = nextSize.get();
+            for (int i = 0; i < frontierSize; ++i) {
+                levels[frontier[i]] = level;
+                unexploredArcs -= adjacency.degree(frontier[i]);
+            }
+        }
+    }
+
+    /**
+     * Each vertex of the frontier lowers the parent of its unvisited neighbours to itself,
+     * the thread that gives a vertex its first parent adds it to the next level.
+     */
+    private void topDownStep() {
+        RangeTask.run(pool, 0, frontierSize, i -> {
+            int vertex = frontier[i];
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                int adjacent = adjacency.neighbor(arc);
+                if (levels[adjacent] >= 0)
+                    continue;
+                int parent = parents.get(adjacent);
+                while ((parent < 0 || vertex < parent) && !parents.compareAndSet(adjacent, parent, vertex))
+                    parent = parents.get(adjacent);
+                if (parent < 0)
+                    next[nextSize.getAndIncrement()] = adjacent;
+            }
+        });
+    }
+
+    /**
+     * Each unvisited vertex takes as parent its first neighbour in the frontier,
+     * the neighbours being sorted the first one is the lowest.
+     */
+    private void bottomUpStep() {
+        for (int i = 0; i < frontierSize; ++i)
+            frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+        RangeTask.run(pool, 0, levels.length, vertex -> {
+            if (levels[vertex] >= 0)
+                return;
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                int adjacent = adjacency.neighbor(arc);
+                if ((frontierBits[adjacent >>> 6] & (1L << adjacent)) != 0) {
+                    parents.set(vertex, adjacent);
+                    next[nextSize.getAndIncrement()] = vertex;
+                    return;
+                }
+            }
+        });
+        for (int i = 0; i < frontierSize; ++i)
+            frontierBits[frontier[i] >>> 6] = 0;
+    }
+}
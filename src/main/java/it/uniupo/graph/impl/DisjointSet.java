@@ -0,0 +1,66 @@
+package it.uniupo.graph.impl;
+
+/**
+ * Union-find over the vertexes 0..n-1 kept in primitive arrays,
+ * with path compression and union by rank: almost O(1) amortized per operation.
+ */
+final class DisjointSet {
+
+    private final int[] parents;
+    private final byte[] ranks;
+    private int sets;
+
+    /**
+     * @param size the number of vertexes, each one starts in its own set
+     */
+    DisjointSet(int size) {
+        this.parents = new int[size];
+        this.ranks = new byte[size];
+        this.sets = size;
+        for (int i = 0; i < size; ++i)
+            parents[i] = i;
+    }
+
+    /**
+     * @return the representative of the set of the vertex.
+     */
+    int find(int vertex) {
+        int root = vertex;
+        while (parents[root] != root)
+            root = parents[root];
+        while (parents[vertex] != root) {
+            int next = parents[vertex];
+            parents[vertex] = root;
+            vertex = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets of the two vertexes, the root of lower rank goes under the other one.
+     *
+     * @return true if the vertexes were in different sets.
+     */
+    boolean union(int u, int v) {
+        int rootU = this.find(u);
+        int rootV = this.find(v);
+        if (rootU == rootV)
+            return false;
+        if (ranks[rootU] < ranks[rootV]) {
+            parents[rootU] = rootV;
+        } else {
+            parents[rootV] = rootU;
+            if (ranks[rootU] == ranks[rootV])
+                ++ranks[rootU];
+        }
+        --sets;
+        return true;
+    }
+
+    /**
+     * @return the number of disjoint sets.
+     */
+    int sets() {
+        return sets;
+    }
+}
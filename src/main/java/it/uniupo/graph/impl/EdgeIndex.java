@@ -0,0 +1,172 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+
+/**
+ * Map from an undirected edge to its column in the incidence matrix.
+ * The two endpoints are packed in a long as (min, max), so both orientations of an edge have the same key,
+ * and the entries live in primitive arrays with open addressing (linear probing),
+ * no object is allocated for lookups, insertions or removals.
+ */
+final class EdgeIndex {
+
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] columns;
+    private int size;
+    private int mask;
+
+    EdgeIndex() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of edges that fit before growing
+     */
+    EdgeIndex(int expectedSize) {
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @return the key shared by (u, v) and (v, u).
+     */
+    static long key(int u, int v) {
+        return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+    }
+
+    /**
+     * @return the number of edges in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the column of the edge between u and v, -1 if there is none.
+     */
+    int get(int u, int v) {
+        long key = key(u, v);
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key)
+                return columns[slot];
+            if (keys[slot] == EMPTY)
+                return -1;
+        }
+    }
+
+    /**
+     * Associates the edge between u and v with the column, replacing the previous column if any.
+     */
+    void put(int u, int v, int column) {
+        long key = key(u, v);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                columns[slot] = column;
+                this.grow();
+                return;
+            }
+        }
+        columns[slot] = column;
+    }
+
+    /**
+     * Associates the edge between u and v with the column, unless the index already contains it.
+     *
+     * @return true if the edge has been added, false if it was already there.
+     */
+    boolean putIfAbsent(int u, int v, int column) {
+        long key = key(u, v);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        columns[slot] = column;
+        if (++size * 2 > keys.length)
+            this.grow();
+        return true;
+    }
+
+    /**
+     * Removes the edge between u and v, the entries after it in the probe sequence
+     * are shifted back so that lookups never stop early on a hole.
+     */
+    void remove(int u, int v) {
+        long key = key(u, v);
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY)
+                return;
+            slot = (slot + 1) & mask;
+        }
+        --size;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            // the entry can fill the hole only if the hole lies between its home slot and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                columns[hole] = columns[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    /**
+     * Removes every edge, keeping the allocated capacity.
+     */
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldColumns = columns;
+        this.allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] == EMPTY)
+                continue;
+            int slot = slot(oldKeys[i]);
+            while (keys[slot] != EMPTY)
+                slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            columns[slot] = oldColumns[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.columns = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Finalizer of MurmurHash3, the vertexes of nearby edges differ only in the low bits.
+     */
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L)
+            capacity <<= 1;
+        return capacity;
+    }
+}
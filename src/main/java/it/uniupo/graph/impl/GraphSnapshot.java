@@ -0,0 +1,140 @@
+package it.uniupo.graph.impl;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a graph, written once and then mapped in memory read-only:
+ * opening it costs the validation of the header, whatever the size of the graph,
+ * and the graphs it returns read the mapped file directly, without copying it on the heap.
+ * The file is little-endian, made of a header of six ints (magic, version, vertexes, edges, arcs, 0)
+ * followed by the weights of the columns (doubles), their sources and targets,
+ * then the CSR adjacency: the V + 1 offsets, the neighbour and the column of each arc (ints).
+ * The mapping is released by {@link #close()}, after which its graphs can no longer be read.
+ */
+public final class GraphSnapshot implements AutoCloseable {
+
+    static final int MAGIC = 0x47554D49;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Arena arena;
+    private final MappedGraphStorage storage;
+
+    private GraphSnapshot(Arena arena, MappedGraphStorage storage) {
+        this.arena = arena;
+        this.storage = storage;
+    }
+
+    /**
+     * Writes the snapshot of the graph, replacing the file if it exists, O(V + E).
+     * The weights are written for unweighted graphs too, so both kinds of graph can be opened from it.
+     *
+     * @param graph the graph being saved
+     * @param path  the file of the snapshot
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(IncidMatrixUndir graph, Path path) throws IOException {
+        IncidenceStorage matrix = graph.matrix;
+        Adjacency adjacency = graph.adjacency();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(matrix.rows()).putInt(matrix.columns()).putInt(adjacency.arcs()).putInt(0);
+            for (int i = 0; i < matrix.columns(); ++i)
+                reserve(channel, buffer).putDouble(matrix.weight(i));
+            for (int i = 0; i < matrix.columns(); ++i)
+                reserve(channel, buffer).putInt(matrix.source(i));
+            for (int i = 0; i < matrix.columns(); ++i)
+                reserve(channel, buffer).putInt(matrix.target(i));
+            for (int i = 0; i < matrix.rows(); ++i)
+                reserve(channel, buffer).putInt(adjacency.start(i));
+            reserve(channel, buffer).putInt(adjacency.arcs());
+            for (int i = 0; i < adjacency.arcs(); ++i)
+                reserve(channel, buffer).putInt(adjacency.neighbor(i));
+            for (int i = 0; i < adjacency.arcs(); ++i)
+                reserve(channel, buffer).putInt(adjacency.column(i));
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Maps the snapshot read-only, checking its header and its size.
+     * The mapping is shared, so the graphs can be read by many threads (e.g. the parallel visits).
+     *
+     * @param path the file of the snapshot
+     * @return the open snapshot, to be closed when its graphs are no longer used.
+     * @throws IOException if the file cannot be read or it's not a snapshot.
+     */
+    public static GraphSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new IOException(String.format("Not a graph snapshot : %s", path));
+            Arena arena = Arena.ofShared();
+            try {
+                MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+                int vertexes = segment.get(MappedGraphStorage.INT, 2L * Integer.BYTES);
+                int edges = segment.get(MappedGraphStorage.INT, 3L * Integer.BYTES);
+                int arcs = segment.get(MappedGraphStorage.INT, 4L * Integer.BYTES);
+                if (segment.get(MappedGraphStorage.INT, 0) != MAGIC
+                        || segment.get(MappedGraphStorage.INT, Integer.BYTES) != VERSION
+                        || vertexes < 0 || edges < 0 || arcs < 0
+                        || segment.byteSize() != MappedGraphStorage.bytes(vertexes, edges, arcs))
+                    throw new IOException(String.format("Not a graph snapshot : %s", path));
+                return new GraphSnapshot(arena, new MappedGraphStorage(segment, vertexes, edges, arcs));
+            } catch (IOException | RuntimeException e) {
+                arena.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return a read-only graph backed by the snapshot, changing it throws UnsupportedOperationException;
+     * its storage mode is {@link StorageMode#MAPPED}.
+     */
+    public IncidMatrixUndir graph() {
+        return new IncidMatrixUndir(storage);
+    }
+
+    /**
+     * @return a read-only weighted graph backed by the snapshot, changing it throws UnsupportedOperationException;
+     * its storage mode is {@link StorageMode#MAPPED}.
+     */
+    public IncidMatrixUndirWeight weightedGraph() {
+        return new IncidMatrixUndirWeight(storage);
+    }
+
+    /**
+     * Unmaps the file, reading the graphs of the snapshot afterwards throws IllegalStateException.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * @return the buffer, with room for at least a double.
+     */
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < Double.BYTES)
+            flush(channel, buffer);
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -6,42 +6,87 @@ import upo.graph.base.VisitResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class IncidMatrixUndir implements Graph {
+public class IncidMatrixUndir implements Graph, AutoCloseable {
 
-    protected List<Edge> edges;
-    protected Double[][] matrix;
+    protected final StorageMode storageMode;
+    protected IncidenceStorage matrix;
+    protected EdgeIndex edgeIndex;
+    private Adjacency adjacency;
 
     /**
      * Constructor of an empty IncidentMatrix, all the fields
      * are initialized to represent an empty Graph with no vertexes/edges.
+     * The matrix is stored densely, see {@link StorageMode#DENSE}.
      */
     protected IncidMatrixUndir() {
-        this.edges = new ArrayList<>();
-        this.matrix = new Double[0][0];
+        this(StorageMode.DENSE);
     }
 
     /**
-     * Rebuilds the matrix after adding a new vertex, increments the rows by one.
+     * Constructor of an empty IncidentMatrix stored with the given mode.
+     *
+     * @param storageMode how the cells of the matrix are stored.
+     */
+    protected IncidMatrixUndir(StorageMode storageMode) {
+        this.storageMode = Objects.requireNonNull(storageMode);
+        this.matrix = storageMode.newStorage(0, 0);
+        this.edgeIndex = new EdgeIndex();
+    }
+
+    /**
+     * A read-only graph backed by a snapshot mapped in memory, which serves as both its matrix and its adjacency,
+     * see {@link StorageMode#MAPPED}. The storage rejects every change before the graph is touched,
+     * so the graph stays consistent.
+     *
+     * @param storage the mapped snapshot
+     */
+    IncidMatrixUndir(MappedGraphStorage storage) {
+        this.storageMode = StorageMode.MAPPED;
+        this.matrix = storage;
+        this.adjacency = storage;
+    }
+
+    /**
+     * Bulk alternative to addVertex/addEdge, for graphs with millions of edges:
+     * the edges are collected in primitive arrays and loaded in one pass,
+     * see {@link Builder}.
+     *
+     * @return a new builder of an empty graph stored densely.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return how the cells of the matrix are stored, {@link StorageMode#MAPPED} for the read-only graphs
+     * of a {@link GraphSnapshot}.
+     */
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Appends a new row to the matrix, every cell of the row is not incident.
      *
      * @return an int that represents the vertix row position in the matrix.
      */
     @Override
     public int addVertex() {
-        int vertexIdx = this.size();
-        this.rebuildMatrix(matrix.length + 1);
-        return vertexIdx;
+        int row = this.matrix.appendRow();
+        this.adjacency = null;
+        return row;
     }
 
     /**
@@ -49,17 +94,44 @@ public class IncidMatrixUndir implements Graph {
      */
     @Override
     public Set<Integer> getVertices() {
-        return this.size() > 0 ? IntStream.range(0, matrix.length)
+        return this.size() > 0 ? IntStream.range(0, matrix.rows())
                 .boxed()
                 .collect(Collectors.toSet()) : Collections.emptySet();
     }
 
     /**
-     * @return An HashSet of edges.
+     * {@link Edge#getEdgeByVertexes(Integer, Integer)} caches the edges in a static set that is not thread-safe,
+     * so the set is built holding the lock of the Edge class: many threads can read the edges of the same graph,
+     * or of different graphs, at once. Code that creates edges from other threads should hold the same lock,
+     * or use {@link #forEachEdge(EdgeConsumer)}, which creates none.
+     *
+     * @return An HashSet of edges, each one in the orientation it was added with.
      */
     @Override
     public Set<Edge> getEdges() {
-        return new HashSet<>(edges);
+        synchronized (Edge.class) {
+            return IntStream.range(0, matrix.columns())
+                    .mapToObj(this::edgeAt)
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    /**
+     * @return the number of edges, O(1).
+     */
+    public int edgeCount() {
+        return this.matrix.columns();
+    }
+
+    /**
+     * Calls the action with the endpoints (in the orientation they were added with) and the weight of every edge,
+     * O(E) and no allocation, unlike {@link #getEdges()}. The weight of an unweighted graph is always 0.0.
+     *
+     * @param action the consumer of the edges
+     */
+    public void forEachEdge(EdgeConsumer action) {
+        for (int i = 0; i < this.matrix.columns(); ++i)
+            action.accept(this.matrix.source(i), this.matrix.target(i), this.matrix.weight(i));
     }
 
     /**
@@ -68,40 +140,42 @@ public class IncidMatrixUndir implements Graph {
      */
     @Override
     public boolean containsVertex(Integer integer) {
-        return integer != null && integer < this.size();
+        return integer != null && integer >= 0 && integer < this.size();
     }
 
     /**
-     * Removes the vertex function parameter if present.
-     * Proceeds than to resize the matrix and eventually decrement all the vertexes
-     * that have a higher value than the removed vertex by one.
-     * It then fixes all the current edges decrementing each vertex that has been decremented
-     * accordingly before, to maintain the same matrix.
+     * Removes the vertex function parameter if present, see {@link #removeVertices(Collection)}.
+     * The vertexes that have a higher value than the removed vertex are decremented by one.
      *
      * @param integer
      * @throws NoSuchElementException if the vertex does not belong to the graph.
      */
     @Override
     public void removeVertex(Integer integer) throws NoSuchElementException {
-        if (!this.containsVertex(integer))
-            throw new NoSuchElementException("No such vertex!");
-        for (int i = 0; i < edges.size(); ++i) {
-            if (matrix[integer][i] < Double.POSITIVE_INFINITY) {
-                Edge edge = edges.get(i);
-                this.removeEdge(edge);
-            }
+        this.removeVertices(Collections.singletonList(integer));
+    }
+
+    /**
+     * Removes the given vertexes with the columns of their edges in a single pass over the matrix,
+     * O(V + E) however many they are. The remaining vertexes keep their order and are numbered
+     * again from 0 (each one is decremented by the number of removed vertexes lower than it).
+     * The cells of the remaining edges (and their weights) are preserved,
+     * the edge index is rebuilt once as the relabeled edges have new keys.
+     *
+     * @param vertexes the vertexes being removed, duplicates are ignored
+     * @throws NoSuchElementException if one of the vertexes does not belong to the graph,
+     *                                the graph is not changed.
+     */
+    public void removeVertices(Collection<Integer> vertexes) throws NoSuchElementException {
+        boolean[] removed = new boolean[this.size()];
+        for (Integer vertex : vertexes) {
+            if (!this.containsVertex(vertex))
+                throw new NoSuchElementException("No such vertex!");
+            removed[vertex] = true;
         }
-        edges = edges.stream()
-                .filter(e -> !this.belongsToEdge(integer, e))
-                .map(e -> {
-                    if (e.getSource() > integer || e.getTarget() > integer) {
-                        int source = e.getSource() > integer ? e.getSource() - 1 : e.getSource();
-                        int target = e.getTarget() > integer ? e.getTarget() - 1 : e.getTarget();
-                        return Edge.getEdgeByVertexes(source, target);
-                    } else return e;
-                })
-                .collect(Collectors.toList());
-        this.rebuildMatrix(this.size() - 1);
+        this.matrix.removeRows(removed);
+        this.adjacency = null;
+        this.rebuildEdgeIndex();
     }
 
     /**
@@ -114,10 +188,7 @@ public class IncidMatrixUndir implements Graph {
     public void addEdge(Edge edge) throws IllegalArgumentException {
         if (edge == null || !this.containsVertex(edge.getSource()) || !this.containsVertex(edge.getTarget()))
             throw new IllegalArgumentException("Cannot have an edge with invalid source/target");
-        if (edges.contains(edge) || edges.contains(Edge.getEdgeByVertexes(edge.getTarget(), edge.getSource())))
-            return;
-        this.edges.add(edge);
-        this.rebuildMatrix(this.size());
+        this.addColumn(edge.getSource(), edge.getTarget(), 0.0);
     }
 
     /**
@@ -129,8 +200,7 @@ public class IncidMatrixUndir implements Graph {
     public boolean containsEdge(Edge edge) throws IllegalArgumentException {
         if (!this.containsVertex(edge.getTarget()) || !this.containsVertex(edge.getSource()))
             throw new IllegalArgumentException("Vertexes must belong to the graph!");
-        return this.edges.contains(edge)
-                || this.edges.contains(Edge.getEdgeByVertexes(edge.getTarget(), edge.getSource()));
+        return this.matrix.isAdjacent(edge.getSource(), edge.getTarget(), this::columnBetween);
     }
 
     /**
@@ -142,8 +212,7 @@ public class IncidMatrixUndir implements Graph {
     public void removeEdge(Edge edge) throws IllegalArgumentException, NoSuchElementException {
         if (!this.containsEdge(edge))
             throw new NoSuchElementException("No such edge.");
-        this.edges.remove(edge);
-        this.rebuildMatrix(this.size());
+        this.removeColumn(this.columnOf(edge));
     }
 
     /**
@@ -156,15 +225,7 @@ public class IncidMatrixUndir implements Graph {
         if (!this.containsVertex(integer))
             throw new NoSuchElementException("The vertex does not belong to the Graph.");
         Set<Integer> set = new HashSet<>();
-        for (int i = 0; i < edges.size(); ++i) {
-            if (matrix[integer][i] < Double.POSITIVE_INFINITY) {
-                Edge e = edges.get(i);
-                if (e.getTarget().equals(integer))
-                    set.add(e.getSource());
-                else
-                    set.add(e.getTarget());
-            }
-        }
+        this.matrix.forEachNeighbor(integer, set::add);
         return set;
     }
 
@@ -178,14 +239,7 @@ public class IncidMatrixUndir implements Graph {
     public boolean isAdjacent(Integer integer, Integer integer1) throws IllegalArgumentException {
         if (!this.containsVertex(integer) || !this.containsVertex(integer1))
             throw new IllegalArgumentException("Make sure all the vertexes are in the Graph");
-        for (int i = 0; i < edges.size(); ++i) {
-            if (matrix[integer][i] < Double.POSITIVE_INFINITY) {
-                Edge edge = edges.get(i);
-                if (edge.getTarget().equals(integer1) || edge.getSource().equals(integer1))
-                    return true;
-            }
-        }
-        return false;
+        return this.matrix.isAdjacent(integer, integer1, this::columnBetween);
     }
 
     /**
@@ -193,7 +247,7 @@ public class IncidMatrixUndir implements Graph {
      */
     @Override
     public int size() {
-        return this.matrix.length;
+        return this.matrix.rows();
     }
 
     /**
@@ -205,49 +259,50 @@ public class IncidMatrixUndir implements Graph {
     }
 
     /**
-     * @return True if the cyclic test detects a backward edge in the DFS visit.
-     * A backward edge is detected when the new edge has as targe a vertex which has previously
-     * been categorized as gray vertex (currently being visited), which denotes that there's a cycle
-     * if target node is not it's predecessor (remember that we're in a undirected matrix...).
+     * A component is acyclic iff it has exactly (vertexes - 1) edges, so a graph with at least
+     * as many edges as vertexes has a cycle; otherwise the endpoints of the columns are merged
+     * in a union-find, stopping at the first edge whose endpoints are already connected
+     * (a self-loop is a cycle too). O(V + E) (up to the inverse Ackermann function) and no visit.
+     *
+     * @return True if the graph contains a cycle.
      */
     @Override
     public boolean isCyclic() {
-        VisitResult visitResult = new VisitResult(this);
-        IntStream.range(0, matrix.length)
-                .boxed()
-                .forEach(vert -> visitResult.setColor(vert, VisitResult.Color.WHITE));
-        for (int i = 0; i < this.size(); ++i) {
-            if (visitResult.getColor(i).equals(VisitResult.Color.WHITE) && isCyclicRic(visitResult, i))
+        int edges = this.matrix.columns();
+        if (edges >= this.size())
+            return true;
+        DisjointSet disjointSet = new DisjointSet(this.size());
+        for (int i = 0; i < edges; ++i) {
+            if (!disjointSet.union(this.matrix.source(i), this.matrix.target(i)))
                 return true;
         }
         return false;
     }
 
     /**
-     * This is the recursive function call of the isCyclic() method.
+     * Finds one cycle of the graph with the iterative DFS of {@link DepthFirstSearch}, O(V + E):
+     * the first edge leading back to a GRAY vertex other than the parent closes the cycle,
+     * which is walked back along the DFS parents.
      *
-     * @param visitResult the visitResult reference being passed in the function call.
-     * @param vertex      the current vertex.
-     * @return true if the cyclic test is positive otherwise it's false.
-     */
-    private boolean isCyclicRic(VisitResult visitResult, Integer vertex) {
-        visitResult.setColor(vertex, VisitResult.Color.GRAY);
-        boolean cyclicFlag = this.getAdjacent(vertex)
-                .stream()
-                .filter(ver -> visitResult.getColor(ver).equals(VisitResult.Color.GRAY))
-                .anyMatch(ver -> !ver.equals(visitResult.getPartent(vertex)));
-        if (cyclicFlag)
-            return true;
-        List<Integer> integersToBeVisited = this.getAdjacent(vertex)
-                .stream()
-                .filter(ver -> visitResult.getColor(ver).equals(VisitResult.Color.WHITE))
-                .toList();
-        for (Integer i : integersToBeVisited) {
-            visitResult.setParent(i, vertex);
-            if (isCyclicRic(visitResult, i))
-                return true;
+     * @return the vertexes of the cycle in order, the first vertex is repeated at the end,
+     * an empty list if the graph is acyclic.
+     */
+    public List<Integer> findCycle() {
+        DepthFirstSearch dfs = new DepthFirstSearch(this.adjacency());
+        for (int i = 0; i < this.size(); ++i) {
+            if (dfs.color(i) != DepthFirstSearch.WHITE)
+                continue;
+            int vertex = dfs.visitUntilCycle(i);
+            if (vertex >= 0) {
+                List<Integer> cycle = new ArrayList<>();
+                cycle.add(vertex);
+                for (int v = vertex; v != dfs.closingNeighbor(); v = dfs.parent(v))
+                    cycle.add(dfs.parent(v));
+                cycle.add(vertex);
+                return cycle;
+            }
         }
-        return false;
+        return Collections.emptyList();
     }
 
     /**
@@ -259,12 +314,8 @@ public class IncidMatrixUndir implements Graph {
     }
 
     /**
-     * This is the BFS visit of the Graph, it's backed by a Queue data structure
-     * to make sure each vertex is visited in the arrival order and only once.
-     * It creates a tree as output which tracks each level and each vertex distance
-     * from the source, tracking for each one it's predecessor.
-     * Each visit has asymptotic complexity of  O(m + n).
-     * N is the number of vertexes, while M is the length of the incident vertexes list.
+     * This is the BFS visit of the Graph, run level by level on the common ForkJoinPool,
+     * see {@link #getBFSTree(Integer, ForkJoinPool)}.
      *
      * @param integer Source vertex of the Breadth First Search
      * @return a VisitResult object which contains the output of the visit.
@@ -273,30 +324,35 @@ public class IncidMatrixUndir implements Graph {
      */
     @Override
     public VisitResult getBFSTree(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        return this.getBFSTree(integer, ForkJoinPool.commonPool());
+    }
 
+    /**
+     * This is the BFS visit of the Graph, it creates a tree as output which tracks each level and each
+     * vertex distance from the source, tracking for each one it's predecessor.
+     * The levels are expanded in parallel over the CSR adjacency, top-down or bottom-up depending on
+     * the size of the frontier (see {@link DirectionOptimizingBfs}), O(V + E) work.
+     * The predecessor of each vertex is its lowest neighbour in the previous level.
+     * The reached vertexes are BLACK, the others stay WHITE.
+     *
+     * @param integer Source vertex of the Breadth First Search
+     * @param pool    the pool expanding the levels
+     * @return a VisitResult object which contains the output of the visit.
+     * @throws IllegalArgumentException if the vertex does not belong to the graph.
+     */
+    public VisitResult getBFSTree(Integer integer, ForkJoinPool pool) throws IllegalArgumentException {
         if (!this.containsVertex(integer))
             throw new IllegalArgumentException("The vertex does not belong to the graph.");
 
+        DirectionOptimizingBfs bfs = DirectionOptimizingBfs.visit(this.adjacency(), integer, pool);
         VisitResult visitResult = new VisitResult(this);
-        LinkedList<Integer> queue = new LinkedList<>();
-        IntStream.range(0, matrix.length)
-                .boxed()
-                .forEach(vert -> visitResult.setColor(vert, VisitResult.Color.WHITE));
-        queue.addLast(integer);
-        visitResult.setDistance(integer, 0);
-        visitResult.setColor(integer, VisitResult.Color.GRAY);
-        while (!queue.isEmpty()) {
-            Integer top = queue.getFirst();
-            this.getAdjacent(top).stream()
-                    .filter(vert -> visitResult.getColor(vert).equals(VisitResult.Color.WHITE))
-                    .forEach(vert -> {
-                        visitResult.setColor(vert, VisitResult.Color.GRAY);
-                        visitResult.setParent(vert, top);
-                        visitResult.setDistance(vert, visitResult.getDistance(top) + 1);
-                        queue.addLast(vert);
-                    });
-            visitResult.setColor(top, VisitResult.Color.BLACK);
-            queue.removeFirst();
+        for (int i = 0; i < this.size(); ++i) {
+            if (bfs.level(i) < 0)
+                continue;
+            visitResult.setColor(i, VisitResult.Color.BLACK);
+            visitResult.setDistance(i, bfs.level(i));
+            if (bfs.parent(i) >= 0)
+                visitResult.setParent(i, bfs.parent(i));
         }
         return visitResult;
     }
@@ -305,7 +361,8 @@ public class IncidMatrixUndir implements Graph {
      * This visit is backed by a stack data structure, which contains each vertex that's being visited.
      * It returns a tree in the VisitResult, which tracks each predecessor for each vertex and all of the
      * start/end time of the visit of each vertex.
-     * This is the non-recursive version of the algorithm.
+     * This is the non-recursive version of the algorithm: an int[] stack with a cursor on the
+     * next neighbour of each vertex (see {@link DepthFirstSearch}), neighbours in ascending order, O(V + E).
      *
      * @param integer
      * @return
@@ -316,125 +373,117 @@ public class IncidMatrixUndir implements Graph {
     public VisitResult getDFSTree(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
         if (!this.containsVertex(integer))
             throw new IllegalArgumentException("Vertex does not belong to the Graph");
+        DepthFirstSearch dfs = new DepthFirstSearch(this.adjacency());
+        dfs.visit(integer);
         VisitResult visitResult = new VisitResult(this);
-        IntStream.range(0, matrix.length)
-                .boxed()
-                .forEach(vertex -> {
-                    visitResult.setColor(vertex, VisitResult.Color.WHITE);
-                    visitResult.setStartTime(vertex, Integer.MAX_VALUE);
-                    visitResult.setEndTime(vertex, Integer.MAX_VALUE);
-                });
-
-        Stack<Integer> stack = new Stack<>();
-        AtomicInteger time = new AtomicInteger();
-        visitResult.setColor(integer, VisitResult.Color.GRAY);
-        stack.push(integer);
-        while (!stack.isEmpty()) {
-            Integer currentVertex = stack.lastElement();
-            if (visitResult.getStartTime(currentVertex) == Integer.MAX_VALUE)
-                visitResult.setStartTime(currentVertex, time.incrementAndGet());
-            this.getAdjacent(currentVertex)
-                    .stream()
-                    .filter(vert -> visitResult.getColor(vert).equals(VisitResult.Color.WHITE))
-                    .findFirst()
-                    .ifPresentOrElse(vert -> {
-                                stack.push(vert);
-                                visitResult.setColor(vert, VisitResult.Color.GRAY);
-                                visitResult.setParent(vert, currentVertex);
-                            }
-                            , () -> {
-                                visitResult.setColor(currentVertex, VisitResult.Color.BLACK);
-                                Integer i = stack.pop();
-                                visitResult.setColor(i, VisitResult.Color.BLACK);
-                                visitResult.setEndTime(i, time.incrementAndGet());
-                            });
-        }
+        this.copyVisit(dfs, visitResult);
         return visitResult;
     }
 
     /**
      * Bonus: added as slides show the recursive version of the algorithm.
-     * The stack being used is the computer's stack that's created within each function call
-     * that allocates a new record and replicates all the local variables.
-     * To set the right start/end time for each vertex we must use an AtomicInteger
-     * which is passed by reference in each function call.
-     * It could be an Integer if it wasn't for the lambda function, which requires an Atomic/Volatile
-     * data.
+     * The visit used to recurse once per vertex, overflowing the stack on deep graphs:
+     * it's now run by the same iterative engine of {@link #getDFSTree(Integer)},
+     * which gives exactly the start/end times of the recursive version.
      *
      * @param integer
-     * @return A VisitResult having visited the tree recursively
+     * @return A VisitResult having visited the tree
      * @throws UnsupportedOperationException
      * @throws IllegalArgumentException      as the vertex does not belong to the Graph
      */
     public VisitResult getDFSTreeRic(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
         if (!this.containsVertex(integer))
             throw new IllegalArgumentException("Vertex does not belong to the Graph");
-
-        VisitResult visitResult = new VisitResult(this);
-        IntStream.range(0, matrix.length)
-                .boxed()
-                .forEach(vertex -> {
-                    visitResult.setColor(vertex, VisitResult.Color.WHITE);
-                    visitResult.setStartTime(vertex, Integer.MAX_VALUE);
-                    visitResult.setEndTime(vertex, Integer.MAX_VALUE);
-                });
-        AtomicInteger time = new AtomicInteger(0);
-        visitDFSRic(visitResult, integer, time);
-        return visitResult;
+        return this.getDFSTree(integer);
     }
 
     /**
+     * Continues a visit from the vertex: every WHITE vertex reachable from it is visited,
+     * the vertexes already GRAY or BLACK in the visitResult are skipped.
+     * Iterative despite the name, see {@link DepthFirstSearch}.
+     *
      * @param visitResult VisitResult object containing each part of the visit.
-     * @param vertex
-     * @param time        Recursive part of the getDFSTreeRic class method.
+     * @param vertex      the WHITE vertex the visit starts from
+     * @param time        the clock of the visit, it's advanced by two ticks for each visited vertex.
      */
     public void visitDFSRic(VisitResult visitResult, Integer vertex, AtomicInteger time) {
-        visitResult.setColor(vertex, VisitResult.Color.GRAY);
-        visitResult.setStartTime(vertex, time.incrementAndGet());
-        this.getAdjacent(vertex)
-                .stream()
-                .filter(currentVertex -> visitResult.getColor(currentVertex).equals(VisitResult.Color.WHITE))
-                .forEach(currentVertex -> {
-                    visitResult.setParent(currentVertex, vertex);
-                    visitDFSRic(visitResult, currentVertex, time);
-                });
+        DepthFirstSearch dfs = new DepthFirstSearch(this.adjacency());
+        for (int i = 0; i < this.size(); ++i) {
+            if (!visitResult.getColor(i).equals(VisitResult.Color.WHITE))
+                dfs.exclude(i);
+        }
+        dfs.setTime(time.get());
+        dfs.visit(vertex);
+        time.set(dfs.time());
+        for (int i = 0; i < this.size(); ++i) {
+            if (visitResult.getColor(i).equals(VisitResult.Color.WHITE) && dfs.color(i) == DepthFirstSearch.BLACK)
+                this.copyVertex(dfs, visitResult, i);
+        }
+    }
+
+    /**
+     * Copies the vertexes visited by the engine into the visitResult.
+     */
+    private void copyVisit(DepthFirstSearch dfs, VisitResult visitResult) {
+        for (int i = 0; i < this.size(); ++i) {
+            if (dfs.color(i) == DepthFirstSearch.BLACK)
+                this.copyVertex(dfs, visitResult, i);
+        }
+    }
+
+    private void copyVertex(DepthFirstSearch dfs, VisitResult visitResult, int vertex) {
         visitResult.setColor(vertex, VisitResult.Color.BLACK);
-        visitResult.setEndTime(vertex, time.incrementAndGet());
+        visitResult.setStartTime(vertex, dfs.startTime(vertex));
+        visitResult.setEndTime(vertex, dfs.endTime(vertex));
+        if (dfs.parent(vertex) >= 0)
+            visitResult.setParent(vertex, dfs.parent(vertex));
     }
 
 
+    /**
+     * The DFS forest of the whole graph: the visit starts from the vertex, then from every
+     * vertex still WHITE in ascending order, see {@link #getDFSTOTForest(Integer[])}.
+     *
+     * @param integer the first root of the forest
+     * @return a VisitResult with every vertex BLACK.
+     * @throws IllegalArgumentException if the vertex does not belong to the graph.
+     */
     @Override
     public VisitResult getDFSTOTForest(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
         if (!this.containsVertex(integer))
             throw new IllegalArgumentException(String.format("The graph does not contain the vertex %d", integer));
-        Integer[] array = IntStream.range(0, this.size())
-                .boxed()
-                .toArray(Integer[]::new);
-        return this.getDFSTOTForest(array);
+        DepthFirstSearch dfs = new DepthFirstSearch(this.adjacency());
+        dfs.visit(integer);
+        for (int i = 0; i < this.size(); ++i) {
+            if (dfs.color(i) == DepthFirstSearch.WHITE)
+                dfs.visit(i);
+        }
+        VisitResult visitResult = new VisitResult(this);
+        this.copyVisit(dfs, visitResult);
+        return visitResult;
     }
 
+    /**
+     * The DFS forest from the given roots: each root still WHITE starts a new tree.
+     * All the trees share one {@link DepthFirstSearch}, so colors and clock are not reset between them:
+     * O(V + E) overall and the start/end times are unique across the whole forest.
+     *
+     * @param integers the roots, in the order they're tried
+     * @return a VisitResult where the vertexes reachable from the roots are BLACK.
+     * @throws IllegalArgumentException if a root does not belong to the graph.
+     */
     @Override
     public VisitResult getDFSTOTForest(Integer[] integers) throws UnsupportedOperationException, IllegalArgumentException {
         if (Arrays.stream(integers).anyMatch(val -> !containsVertex(val)))
             throw new IllegalArgumentException("The graph does not contain the vertex");
 
-        VisitResult visitResult = new VisitResult(this);
+        DepthFirstSearch dfs = new DepthFirstSearch(this.adjacency());
         for (Integer vertex : integers) {
-            if (visitResult.getColor(vertex).equals(VisitResult.Color.WHITE)) {
-                VisitResult currentVisit = this.getDFSTree(vertex);
-                IntStream.range(0, this.size())
-                        .boxed()
-                        .forEach(ver -> {
-                            if (currentVisit.getColor(ver).equals(VisitResult.Color.BLACK)) {
-                                visitResult.setColor(ver, VisitResult.Color.BLACK);
-                                visitResult.setEndTime(ver, currentVisit.getEndTime(ver));
-                                visitResult.setStartTime(ver, currentVisit.getStartTime(ver));
-                                if (currentVisit.getPartent(ver) != null)
-                                    visitResult.setParent(ver, currentVisit.getPartent(ver));
-                            }
-                        });
-            }
+            if (dfs.color(vertex) == DepthFirstSearch.WHITE)
+                dfs.visit(vertex);
         }
+        VisitResult visitResult = new VisitResult(this);
+        this.copyVisit(dfs, visitResult);
         return visitResult;
     }
 
@@ -460,31 +509,225 @@ public class IncidMatrixUndir implements Graph {
      */
     @Override
     public Set<Set<Integer>> connectedComponents() throws UnsupportedOperationException {
-        Set<Set<Integer>> completeSet = new HashSet<>();
-        for (int i = 0; i < this.size(); ++i) {
-            VisitResult visit = this.getDFSTreeRic(i);
-            Set<Integer> partialSet = this.getVertices()
-                    .stream()
-                    .filter(vert -> visit.getColor(vert).equals(VisitResult.Color.BLACK))
-                    .collect(Collectors.toSet());
-            completeSet.add(partialSet);
+        return componentsOf(this.connectedComponentIds());
+    }
+
+    /**
+     * Parallel version of {@link #connectedComponents()}, see {@link #connectedComponentIds(ForkJoinPool)}.
+     *
+     * @param pool the pool running the unions
+     * @return All the connected components of the graph represented as Set of Sets
+     */
+    public Set<Set<Integer>> connectedComponents(ForkJoinPool pool) {
+        return componentsOf(this.connectedComponentIds(pool));
+    }
+
+    /**
+     * Labels the connected components with a single pass of a union-find over the columns,
+     * O(V + E) (up to the inverse Ackermann function) and no visit.
+     * The components are numbered from 0 in the order of their lowest vertex,
+     * so the labels depend only on the graph.
+     *
+     * @return the component of each vertex, indexed by vertex.
+     */
+    public int[] connectedComponentIds() {
+        DisjointSet disjointSet = new DisjointSet(this.size());
+        for (int i = 0; i < this.matrix.columns(); ++i)
+            disjointSet.union(this.matrix.source(i), this.matrix.target(i));
+        int[] roots = new int[this.size()];
+        for (int i = 0; i < roots.length; ++i)
+            roots[i] = disjointSet.find(i);
+        return labelsOf(roots);
+    }
+
+    /**
+     * Parallel version of {@link #connectedComponentIds()}: the columns are split in ranges
+     * run by the threads of the pool, which merge the endpoints in a lock-free union-find
+     * (see {@link ConcurrentDisjointSet}), then the roots are found in parallel too.
+     * The labels are the same as the sequential version, whatever the number of threads.
+     * The graph must not be changed while the components are labeled.
+     *
+     * @param pool the pool running the unions
+     * @return the component of each vertex, indexed by vertex.
+     */
+    public int[] connectedComponentIds(ForkJoinPool pool) {
+        ConcurrentDisjointSet disjointSet = new ConcurrentDisjointSet(this.size());
+        RangeTask.run(pool, 0, this.matrix.columns(),
+                column -> disjointSet.union(this.matrix.source(column), this.matrix.target(column)));
+        int[] roots = new int[this.size()];
+        RangeTask.run(pool, 0, roots.length, vertex -> roots[vertex] = disjointSet.find(vertex));
+        return labelsOf(roots);
+    }
+
+    /**
+     * Numbers the roots from 0 in the order of the first vertex of each one.
+     *
+     * @param roots the root of each vertex
+     * @return the label of each vertex.
+     */
+    private static int[] labelsOf(int[] roots) {
+        int[] labels = new int[roots.length];
+        int[] rootLabels = new int[roots.length];
+        Arrays.fill(rootLabels, -1);
+        int components = 0;
+        for (int i = 0; i < roots.length; ++i) {
+            if (rootLabels[roots[i]] < 0)
+                rootLabels[roots[i]] = components++;
+            labels[i] = rootLabels[roots[i]];
         }
-        return completeSet;
+        return labels;
     }
 
     /**
-     * @param vertexSize the number of vertexes
-     *                   Rebuild the matrix copying the current one into a new allocation
+     * @param componentIds the component of each vertex, numbered from 0 in order of appearance
+     * @return the vertexes grouped by component.
      */
-    protected void rebuildMatrix(int vertexSize) {
-        this.matrix = new Double[vertexSize][edges.size()];
-        for (int i = 0; i < this.size(); ++i) {
-            for (int j = 0; j < edges.size(); ++j) {
-                this.matrix[i][j] = belongsToEdge(i, edges.get(j)) ? 0.0 : Double.POSITIVE_INFINITY;
-            }
+    private static Set<Set<Integer>> componentsOf(int[] componentIds) {
+        List<Set<Integer>> components = new ArrayList<>();
+        for (int i = 0; i < componentIds.length; ++i) {
+            if (componentIds[i] == components.size())
+                components.add(new HashSet<>());
+            components.get(componentIds[i]).add(i);
+        }
+        return new HashSet<>(components);
+    }
+
+    /**
+     * @param edge the edge being searched, in any orientation.
+     * @return the column of the edge in the matrix, -1 if the graph does not contain it.
+     */
+    protected int columnOf(Edge edge) {
+        return this.columnBetween(edge.getSource(), edge.getTarget());
+    }
+
+    /**
+     * A graph mapped from a snapshot has no edge index, its edges are searched in the sorted adjacency.
+     *
+     * @return the column of the edge between u and v, -1 if the graph does not contain it.
+     */
+    private int columnBetween(int u, int v) {
+        return this.edgeIndex != null ? this.edgeIndex.get(u, v) : this.adjacency().columnBetween(u, v);
+    }
+
+    /**
+     * Adds the column of an edge if the graph does not contain it yet, the vertexes must be valid.
+     *
+     * @return the column of the edge.
+     */
+    protected int addColumn(int source, int target, double weight) {
+        int column = this.columnBetween(source, target);
+        if (column >= 0)
+            return column;
+        column = this.matrix.appendColumn(source, target, weight);
+        this.adjacency = null;
+        this.edgeIndex.put(source, target, column);
+        return column;
+    }
+
+    /**
+     * Replaces the whole graph with the given vertexes and edges in a single pass:
+     * the matrix and the edge index are allocated once with their final size.
+     * The endpoints must be between 0 and vertexes - 1; an edge already loaded,
+     * in any orientation, is skipped together with its weight.
+     *
+     * @param vertexes the number of vertexes
+     * @param sources  the sources of the edges
+     * @param targets  the targets of the edges
+     * @param weights  the weights of the edges
+     * @param edges    the number of edges, the arrays may be longer
+     */
+    protected void loadEdges(int vertexes, int[] sources, int[] targets, double[] weights, int edges) {
+        this.adjacency = null;
+        this.matrix.close();
+        this.matrix = this.storageMode.newStorage(vertexes, edges);
+        this.edgeIndex = new EdgeIndex(edges);
+        for (int i = 0; i < vertexes; ++i)
+            this.matrix.appendRow();
+        for (int i = 0; i < edges; ++i) {
+            if (this.edgeIndex.putIfAbsent(sources[i], targets[i], this.matrix.columns()))
+                this.matrix.appendColumn(sources[i], targets[i], weights[i]);
         }
     }
 
+    /**
+     * Removes the column of an edge, the last column is moved into its place
+     * so its entry in the edge index is updated.
+     *
+     * @param column the column of the edge being removed
+     */
+    protected void removeColumn(int column) {
+        int source = this.matrix.source(column);
+        int target = this.matrix.target(column);
+        this.matrix.removeColumn(column);
+        this.adjacency = null;
+        this.edgeIndex.remove(source, target);
+        if (column < this.matrix.columns())
+            this.edgeIndex.put(this.matrix.source(column), this.matrix.target(column), column);
+    }
+
+    /**
+     * Rebuilds the edge index from the endpoints stored in the matrix, O(E).
+     */
+    protected void rebuildEdgeIndex() {
+        this.edgeIndex.clear();
+        for (int i = 0; i < this.matrix.columns(); ++i)
+            this.edgeIndex.put(this.matrix.source(i), this.matrix.target(i), i);
+    }
+
+    /**
+     * The adjacency is derived from the matrix on first use and cached until the next
+     * change of vertexes or edges, changing a weight keeps it valid as arcs refer to columns.
+     *
+     * @return the CSR adjacency of the current graph.
+     */
+    protected Adjacency adjacency() {
+        if (this.adjacency == null)
+            this.adjacency = CsrAdjacency.of(this.matrix);
+        return this.adjacency;
+    }
+
+    /**
+     * Replaces this graph, which must be new, with a copy of the vertexes and edges of the other one,
+     * in the same column order: its adjacency stays valid for the copy, so it's shared instead of derived again.
+     *
+     * @param other the graph being copied
+     */
+    void copyOf(IncidMatrixUndir other) {
+        int edges = other.edgeCount();
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        double[] weights = new double[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = other.matrix.source(i);
+            targets[i] = other.matrix.target(i);
+            weights[i] = other.matrix.weight(i);
+        }
+        this.loadEdges(other.size(), sources, targets, weights, edges);
+        if (other.adjacency instanceof CsrAdjacency)
+            this.adjacency = other.adjacency;
+    }
+
+    /**
+     * Makes the graph read-only so that many threads can read it with no lock: the adjacency is derived now
+     * instead of on first use, and every change throws {@link UnsupportedOperationException}.
+     * The graph must be published safely (through a volatile or final field) after this call.
+     */
+    void freeze() {
+        this.adjacency();
+        if (!(this.matrix instanceof ReadOnlyIncidenceStorage))
+            this.matrix = new ReadOnlyIncidenceStorage(this.matrix);
+    }
+
+    /**
+     * Creates the edge through the static cache of the library, see {@link #getEdges()} for the lock to hold.
+     *
+     * @param column a column of the matrix
+     * @return the edge of the column, in the orientation it was added with.
+     */
+    protected Edge edgeAt(int column) {
+        return Edge.getEdgeByVertexes(this.matrix.source(column), this.matrix.target(column));
+    }
+
     /**
      * Utility method which is useful in the context of undirected graphs.
      * There is no direction, so opposite edges are the same for the matrix (opposite = source
@@ -498,6 +741,16 @@ public class IncidMatrixUndir implements Graph {
         return e.getSource().equals(i) || e.getTarget().equals(i);
     }
 
+    /**
+     * Releases the memory of an {@link StorageMode#OFF_HEAP} graph at once, instead of waiting for
+     * the graph to become unreachable: the graph can no longer be used. Nothing to do for the other modes,
+     * and a graph mapped from a snapshot is released by closing the {@link GraphSnapshot}.
+     */
+    @Override
+    public void close() {
+        this.matrix.close();
+    }
+
     /**
      * @return String representing a visualization of the matrix, just for debugging purpose,
      * no use at all of this method.
@@ -507,23 +760,25 @@ public class IncidMatrixUndir implements Graph {
         StringBuilder sb = new StringBuilder();
         sb.append("Incident matrix : \n\n");
         sb.append(" ");
-        for (int i = 0; i < this.edges.size(); ++i) {
+        for (int i = 0; i < this.matrix.columns(); ++i) {
             if (i > 0)
                 sb.append(",");
-            Edge currentEdge = edges.get(i);
             sb.append(" (")
-                    .append(currentEdge.getSource())
+                    .append(this.matrix.source(i))
                     .append(",")
-                    .append(currentEdge.getTarget())
+                    .append(this.matrix.target(i))
                     .append(")");
         }
         sb.append("\n");
         for (int i = 0; i < this.size(); ++i) {
             sb.append(i);
             sb.append(" [");
-            for (int j = 0; j < edges.size(); ++j) {
-                sb.append(this.matrix[i][j].equals(Double.POSITIVE_INFINITY) ? "∞" : this.matrix[i][j]);
-                if (j + 1 < edges.size())
+            for (int j = 0; j < this.matrix.columns(); ++j) {
+                if (this.matrix.isIncident(i, j))
+                    sb.append(this.matrix.get(i, j));
+                else
+                    sb.append("∞");
+                if (j + 1 < this.matrix.columns())
                     sb.append(", ");
             }
             sb.append("]\n");
@@ -542,4 +797,139 @@ public class IncidMatrixUndir implements Graph {
     public int hashCode() {
         return Objects.hash(this.getEdges(), this.getVertices());
     }
+
+    /**
+     * Consumer of the edges of a graph, see {@link #forEachEdge(EdgeConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EdgeConsumer {
+
+        void accept(int source, int target, double weight);
+    }
+
+    /**
+     * Collects the vertexes and edges of a graph and builds it in a single pass:
+     * the matrix and the edge index are allocated once, and duplicate edges (in any orientation)
+     * are dropped by a hash pass that keeps the first occurrence and its weight.
+     * The builder can be reused, each build returns a new graph.
+     */
+    public static final class Builder {
+
+        private int vertexes;
+        private StorageMode storageMode = StorageMode.DENSE;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private double[] weights = new double[16];
+        private int edges;
+
+        private Builder() {
+        }
+
+        /**
+         * @param vertexes the number of vertexes, numbered from 0 to vertexes - 1
+         * @return this builder.
+         * @throws IllegalArgumentException if the number is negative.
+         */
+        public Builder vertices(int vertexes) {
+            if (vertexes < 0)
+                throw new IllegalArgumentException("The number of vertexes cannot be negative");
+            this.vertexes = vertexes;
+            return this;
+        }
+
+        /**
+         * @param storageMode how the cells of the matrix are stored.
+         * @return this builder.
+         * @throws IllegalArgumentException if the mode is {@link StorageMode#MAPPED}, see {@link GraphSnapshot}.
+         */
+        public Builder storage(StorageMode storageMode) {
+            if (Objects.requireNonNull(storageMode) == StorageMode.MAPPED)
+                throw new IllegalArgumentException("A MAPPED graph can only be opened from a GraphSnapshot");
+            this.storageMode = storageMode;
+            return this;
+        }
+
+        /**
+         * Adds an edge of weight 0.0.
+         *
+         * @return this builder.
+         */
+        public Builder edge(int source, int target) {
+            return this.edge(source, target, 0.0);
+        }
+
+        /**
+         * @return this builder.
+         */
+        public Builder edge(int source, int target, double weight) {
+            this.ensureCapacity(edges + 1);
+            sources[edges] = source;
+            targets[edges] = target;
+            weights[edges] = weight;
+            ++edges;
+            return this;
+        }
+
+        /**
+         * Adds the edges (sources[i], targets[i]), each of weight 0.0.
+         *
+         * @return this builder.
+         * @throws IllegalArgumentException if the arrays have different lengths.
+         */
+        public Builder edges(int[] sources, int[] targets) {
+            return this.edges(sources, targets, new double[sources.length]);
+        }
+
+        /**
+         * Adds the edges (sources[i], targets[i]) of weight weights[i].
+         *
+         * @return this builder.
+         * @throws IllegalArgumentException if the arrays have different lengths.
+         */
+        public Builder edges(int[] sources, int[] targets, double[] weights) {
+            if (sources.length != targets.length || sources.length != weights.length)
+                throw new IllegalArgumentException("Sources, targets and weights must have the same length");
+            this.ensureCapacity(edges + sources.length);
+            System.arraycopy(sources, 0, this.sources, edges, sources.length);
+            System.arraycopy(targets, 0, this.targets, edges, sources.length);
+            System.arraycopy(weights, 0, this.weights, edges, sources.length);
+            edges += sources.length;
+            return this;
+        }
+
+        /**
+         * @return the unweighted graph.
+         * @throws IllegalArgumentException if an edge has a vertex that does not belong to the graph.
+         */
+        public IncidMatrixUndir build() {
+            return this.load(new IncidMatrixUndir(storageMode));
+        }
+
+        /**
+         * @return the weighted graph.
+         * @throws IllegalArgumentException if an edge has a vertex that does not belong to the graph.
+         */
+        public IncidMatrixUndirWeight buildWeighted() {
+            return this.load(new IncidMatrixUndirWeight(storageMode));
+        }
+
+        private <G extends IncidMatrixUndir> G load(G graph) {
+            for (int i = 0; i < edges; ++i) {
+                if (sources[i] < 0 || sources[i] >= vertexes || targets[i] < 0 || targets[i] >= vertexes)
+                    throw new IllegalArgumentException(String.format("Cannot have an edge with invalid source/target : (%d, %d)",
+                            sources[i], targets[i]));
+            }
+            graph.loadEdges(vertexes, sources, targets, weights, edges);
+            return graph;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= sources.length)
+                return;
+            int newCapacity = Math.max(capacity, sources.length * 2);
+            sources = Arrays.copyOf(sources, newCapacity);
+            targets = Arrays.copyOf(targets, newCapacity);
+            weights = Arrays.copyOf(weights, newCapacity);
+        }
+    }
 }
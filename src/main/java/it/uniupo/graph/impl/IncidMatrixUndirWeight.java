@@ -3,16 +3,10 @@ package it.uniupo.graph.impl;
 import upo.graph.base.Edge;
 import upo.graph.base.WeightedGraph;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class IncidMatrixUndirWeight extends IncidMatrixUndir implements WeightedGraph {
 
@@ -27,6 +21,31 @@ public class IncidMatrixUndirWeight extends IncidMatrixUndir implements Weighted
         super();
     }
 
+    /**
+     * Constructor of an empty IncidMatrixUndirWeight stored with the given mode.
+     *
+     * @param storageMode how the cells of the matrix are stored.
+     * @throws IllegalArgumentException if the mode is {@link StorageMode#BIT_PACKED}, which has no weights.
+     */
+    protected IncidMatrixUndirWeight(StorageMode storageMode) {
+        super(checkWeighted(storageMode));
+    }
+
+    /**
+     * A read-only weighted graph backed by a mapped snapshot, see {@link StorageMode#MAPPED}.
+     *
+     * @param storage the mapped snapshot
+     */
+    IncidMatrixUndirWeight(MappedGraphStorage storage) {
+        super(storage);
+    }
+
+    private static StorageMode checkWeighted(StorageMode storageMode) {
+        if (storageMode == StorageMode.BIT_PACKED)
+            throw new IllegalArgumentException("A weighted graph cannot be BIT_PACKED");
+        return storageMode;
+    }
+
     /**
      * @param edge
      * @return the edge weight as double
@@ -35,62 +54,36 @@ public class IncidMatrixUndirWeight extends IncidMatrixUndir implements Weighted
      */
     @Override
     public double getEdgeWeight(Edge edge) throws IllegalArgumentException, NoSuchElementException {
-        if (!super.containsVertex(edge.getSource()))
-            throw new IllegalArgumentException(String.format(VERTEX_NOT_PRESENT, edge.getSource()));
-        if (!super.containsVertex(edge.getTarget()))
-            throw new IllegalArgumentException(String.format(VERTEX_NOT_PRESENT, edge.getTarget()));
-        if (!this.containsEdge(edge))
-            throw new NoSuchElementException(String.format("The edge (%d, %d) does not belong to the graph", edge.getSource(), edge.getTarget()));
-        return super.matrix[edge.getSource()][edges.indexOf(edge)];
+        return super.matrix.weight(this.existingColumnOf(edge));
     }
 
     @Override
     public void setEdgeWeight(Edge edge, double v) throws IllegalArgumentException, NoSuchElementException {
-        this.getEdgeWeight(edge);
-        int edgeIndex = edges.indexOf(edge);
-        super.matrix[edge.getSource()][edgeIndex] = super.matrix[edge.getTarget()][edgeIndex] = v;
+        super.matrix.setWeight(this.existingColumnOf(edge), v);
     }
 
     /**
-     * @param integer the vertex that is being removed.
-     * @throws NoSuchElementException if the vertex is included in the graph.
-     *                                Overrides the superclass method, preserving the edges' weight.
+     * Single lookup in the edge index shared by getEdgeWeight and setEdgeWeight.
+     *
+     * @param edge the edge being searched, in any orientation.
+     * @return the column of the edge in the matrix.
+     * @throws IllegalArgumentException if one of the vertexes does not belong to the graph.
+     * @throws NoSuchElementException   if the graph does not contain the edge.
      */
-    @Override
-    public void removeVertex(Integer integer) throws NoSuchElementException {
-        if (!this.containsVertex(integer))
-            throw new NoSuchElementException("No such vertex!");
-        HashMap<Edge, Double> edgesWeightMap = new HashMap<>();
-        this.getEdges()
-                .forEach(edge -> {
-                    if (edge.getSource().equals(integer) || edge.getTarget().equals(integer))
-                        return;
-                    Integer source = edge.getSource() > integer ? edge.getSource() - 1 : edge.getSource();
-                    Integer target = edge.getTarget() > integer ? edge.getTarget() - 1 : edge.getTarget();
-                    Double weight = this.getEdgeWeight(edge);
-                    edgesWeightMap.put(Edge.getEdgeByVertexes(source, target), weight);
-                });
-        super.removeVertex(integer);
-        edgesWeightMap.keySet().forEach(key -> {
-            this.setEdgeWeight(key, edgesWeightMap.get(key));
-        });
-    }
-
-    @Override
-    public int addVertex() {
-        Double[][] matr = new Double[this.size() + 1][this.edges.size()];
-        for (int i = 0; i < this.size(); ++i) {
-            System.arraycopy(this.matrix[i], 0, matr[i], 0, this.edges.size());
-        }
-        for (int i = 0; i < this.edges.size(); ++i)
-            matr[this.size()][i] = Double.POSITIVE_INFINITY;
-        this.matrix = matr;
-        return this.size() - 1;
+    private int existingColumnOf(Edge edge) throws IllegalArgumentException, NoSuchElementException {
+        if (!super.containsVertex(edge.getSource()))
+            throw new IllegalArgumentException(String.format(VERTEX_NOT_PRESENT, edge.getSource()));
+        if (!super.containsVertex(edge.getTarget()))
+            throw new IllegalArgumentException(String.format(VERTEX_NOT_PRESENT, edge.getTarget()));
+        int column = this.columnOf(edge);
+        if (column < 0)
+            throw new NoSuchElementException(String.format("The edge (%d, %d) does not belong to the graph", edge.getSource(), edge.getTarget()));
+        return column;
     }
 
     /**
      * Adds a new edge if not present, with the given source/target vertexes.
-     * Every edge weight is preserved.
+     * Every edge weight is preserved, the new edge starts with weight 0.
      *
      * @param edge
      * @throws IllegalArgumentException if the Edge contains vertexes that do not belong to the graph.
@@ -99,110 +92,180 @@ public class IncidMatrixUndirWeight extends IncidMatrixUndir implements Weighted
     public void addEdge(Edge edge) throws IllegalArgumentException {
         if (edge == null)
             throw new IllegalArgumentException("The edge cannot be null!");
-        if (!this.containsVertex(edge.getSource()) || !this.containsVertex(edge.getTarget()))
-            throw new IllegalArgumentException("Cannot have an edge with invalid source/target");
-        if (edges.contains(edge) || edges.contains(Edge.getEdgeByVertexes(edge.getTarget(), edge.getSource())))
-            return;
-        this.edges.add(edge);
-        Double[][] matr = new Double[this.size()][this.edges.size()];
-
-        for (int i = 0; i < this.size(); ++i) {
-            for (int j = 0; j < this.edges.size() - 1; ++j) {
-                matr[i][j] = this.matrix[i][j];
-            }
-        }
-        for (int i = 0; i < this.size(); ++i)
-            matr[i][this.edges.size() - 1] = this.belongsToEdge(i, edge) ? 0.0 : Double.POSITIVE_INFINITY;
-        this.matrix = matr;
+        super.addEdge(edge);
     }
 
     /**
-     * @param edge
-     * @throws IllegalArgumentException One of the vertexes doesn't belong to the Graph's vertexes.
-     * @throws NoSuchElementException   the edge is not included in the current edges.
+     * Bellman-Ford shortest paths, see {@link #getBellmanFordShortestPaths(Integer, boolean)}.
+     * The queue-based mode is used on sparse graphs, when E log V does not exceed V^2.
+     *
+     * @param integer the source vertex
+     * @return the shortest paths tree as a WeightedGraph, shaped like the one of Dijkstra.
+     * @throws NegativeCycleException   if a negative edge is reachable from the source.
+     * @throws IllegalArgumentException if the vertex does not belong to the graph.
      */
     @Override
-    public void removeEdge(Edge edge) throws IllegalArgumentException, NoSuchElementException {
-        if (!this.containsEdge(edge))
-            throw new NoSuchElementException("No such edge.");
-        this.edges.remove(edge);
-        Double[][] matr = new Double[this.size()][this.edges.size()];
-        for (int i = 0; i < this.size(); ++i) {
-            for (int j = 0; j < this.edges.size(); ++j) {
-                matr[i][j] = this.matrix[i][j];
+    public WeightedGraph getBellmanFordShortestPaths(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
+        boolean dense = (long) super.matrix.columns() * (32 - Integer.numberOfLeadingZeros(this.size())) > (long) this.size() * this.size();
+        return this.getBellmanFordShortestPaths(integer, !dense);
+    }
+
+    /**
+     * Bellman-Ford shortest paths, in one of two modes:
+     * passes over primitive copies of the endpoints and weights of every edge, stopping at the
+     * first pass that relaxes nothing, O(V * E) at worst; or the queue-based variant (SPFA) that
+     * only relaxes the edges of the vertexes whose distance has just changed.
+     * The graph is undirected, so an edge can be walked back and forth: a negative edge
+     * reachable from the source is a negative cycle by itself, and it's reported as soon as it's met.
+     *
+     * @param integer    the source vertex
+     * @param queueBased true for the SPFA mode, false for the passes over every edge
+     * @return the shortest paths tree as a WeightedGraph, shaped like the one of Dijkstra.
+     * @throws NegativeCycleException   if a negative edge is reachable from the source.
+     * @throws IllegalArgumentException if the vertex does not belong to the graph.
+     */
+    public WeightedGraph getBellmanFordShortestPaths(Integer integer, boolean queueBased) throws NegativeCycleException, IllegalArgumentException {
+        if (!this.containsVertex(integer))
+            throw new IllegalArgumentException(String.format("Vertex %d does not belong to the graph", integer));
+        double[] distances = new double[this.size()];
+        int[] predecessors = new int[this.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+        distances[integer] = 0.0;
+        if (queueBased)
+            this.bellmanFordByQueue(integer, distances, predecessors);
+        else
+            this.bellmanFordByPasses(distances, predecessors);
+        return this.treeOf(predecessors, distances);
+    }
+
+    private void bellmanFordByPasses(double[] distances, int[] predecessors) {
+        int edges = super.matrix.columns();
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        double[] weights = new double[edges];
+        for (int i = 0; i < edges; ++i) {
+            sources[i] = super.matrix.source(i);
+            targets[i] = super.matrix.target(i);
+            weights[i] = super.matrix.weight(i);
+        }
+        boolean relaxed = true;
+        for (int pass = 1; pass < this.size() && relaxed; ++pass) {
+            relaxed = false;
+            for (int i = 0; i < edges; ++i) {
+                relaxed |= relax(sources[i], targets[i], weights[i], distances, predecessors);
+                relaxed |= relax(targets[i], sources[i], weights[i], distances, predecessors);
+            }
+        }
+    }
+
+    private void bellmanFordByQueue(int source, double[] distances, int[] predecessors) {
+        Adjacency adjacency = this.adjacency();
+        int[] queue = new int[this.size()];
+        boolean[] queued = new boolean[this.size()];
+        int head = 0;
+        int length = 1;
+        queue[0] = source;
+        queued[source] = true;
+        while (length > 0) {
+            int vertex = queue[head];
+            head = (head + 1) % queue.length;
+            --length;
+            queued[vertex] = false;
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                int adjacent = adjacency.neighbor(arc);
+                if (relax(vertex, adjacent, super.matrix.weight(adjacency.column(arc)), distances, predecessors) && !queued[adjacent]) {
+                    queue[(head + length++) % queue.length] = adjacent;
+                    queued[adjacent] = true;
+                }
             }
         }
-        this.matrix = matr;
     }
 
     /**
-     * @param integer
-     * @return Currently unsupported, throws an UnsupportedOperationException.
-     * @throws UnsupportedOperationException
-     * @throws IllegalArgumentException
+     * Relaxes the edge walked from source to target.
+     *
+     * @return true if the distance of the target has been lowered.
+     * @throws NegativeCycleException if the edge is negative and the source is reachable.
      */
-    @Override
-    public WeightedGraph getBellmanFordShortestPaths(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
-        throw new UnsupportedOperationException(UNSUPPORTED_IMPLEMENTATION);
+    private static boolean relax(int source, int target, double weight, double[] distances, int[] predecessors) {
+        if (distances[source] == Double.POSITIVE_INFINITY)
+            return false;
+        if (weight < 0)
+            throw new NegativeCycleException(List.of(source, target, source));
+        if (distances[source] + weight >= distances[target])
+            return false;
+        distances[target] = distances[source] + weight;
+        predecessors[target] = source;
+        return true;
     }
 
     /**
-     * @param integer
-     * @return Currently unsupported, throws an UnsupportedOperationException.
-     * @throws UnsupportedOperationException
-     * @throws IllegalArgumentException
+     * Loads a tree (or forest) in one pass, with the storage mode of this graph.
+     *
+     * @param parents the parent of each vertex, -1 for the roots and the vertexes not reached
+     * @param values  the weight of the edge from the parent of each vertex
+     * @return a graph with every vertex and an edge from each vertex with a parent to its parent.
+     */
+    private WeightedGraph treeOf(int[] parents, double[] values) {
+        int[] sources = new int[this.size()];
+        int[] targets = new int[this.size()];
+        double[] weights = new double[this.size()];
+        int edges = 0;
+        for (int i = 0; i < this.size(); ++i) {
+            if (parents[i] >= 0) {
+                sources[edges] = parents[i];
+                targets[edges] = i;
+                weights[edges++] = values[i];
+            }
+        }
+        IncidMatrixUndirWeight tree = new IncidMatrixUndirWeight(this.storageMode.resultMode());
+        tree.loadEdges(this.size(), sources, targets, weights, edges);
+        return tree;
+    }
+
+    /**
+     * Dijkstra's algorithm backed by an indexed binary heap of the vertexes with decrease-key,
+     * the neighbours are visited through the CSR adjacency of the graph.
+     * Each vertex is polled once and each edge is relaxed at most twice, O((V + E) log V).
+     * The result has every vertex of the graph and, for each reached vertex, the edge from its
+     * predecessor weighted with the distance of the vertex from the source.
+     *
+     * @param integer the source vertex
+     * @return the shortest paths tree as a WeightedGraph.
+     * @throws UnsupportedOperationException if a reachable edge has a negative weight.
+     * @throws IllegalArgumentException      if the vertex does not belong to the graph.
      */
     @Override
     public WeightedGraph getDijkstraShortestPaths(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
         if (!this.containsVertex(integer))
             throw new IllegalArgumentException(String.format("Vertex %d does not belong to the graph", integer));
 
-        WeightedGraph dijkstraVisitGraph = new IncidMatrixUndirWeight();
-        PriorityQueue<VertexDistance> priorityQueue =
-                new PriorityQueue<>(this.size(), Comparator.comparingDouble((v1 -> v1.distance)));
-
-        List<VertexDistance> vertexDistances = this.getVertices().stream()
-                .map(VertexDistance::new)
-                .peek(vertexDistance -> {
-                    if (Objects.equals(vertexDistance.vertex, integer))
-                        vertexDistance.setDistance(0.00);
-                    priorityQueue.add(vertexDistance);
-                    dijkstraVisitGraph.addVertex();
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        Set<Integer> blackVertexes = new HashSet<>();
-        while (!priorityQueue.isEmpty()) {
-            VertexDistance polledElement = priorityQueue.poll();
-            blackVertexes.add(polledElement.vertex);
-            this.getAdjacent(polledElement.vertex)
-                    .stream()
-                    .filter(v -> !blackVertexes.contains(v) )
-                    .forEach(adjacent -> {
-                        if (this.getEdgeWeight(Edge.getEdgeByVertexes(polledElement.vertex, adjacent)) + polledElement.distance
-                                < priorityQueue.stream()
-                                .filter(v -> Objects.equals(v.vertex, adjacent))
-                                .map(v -> v.distance)
-                                .findFirst().orElse(Double.POSITIVE_INFINITY)) {
-                            VertexDistance element = priorityQueue.stream()
-                                    .filter(v -> Objects.equals(v.vertex, adjacent))
-                                    .findFirst()
-                                    .orElse(null);
-                            priorityQueue.remove(element);
-                            element.setDistance(this.getEdgeWeight(Edge.getEdgeByVertexes(polledElement.vertex, adjacent)) + polledElement.distance);
-                            element.setPredecessor(polledElement.vertex);
-                            priorityQueue.add(element);
-                        }
-                    });
+        Adjacency adjacency = this.adjacency();
+        double[] distances = new double[this.size()];
+        int[] predecessors = new int[this.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(this.size());
+        distances[integer] = 0.0;
+        heap.insertOrDecrease(integer, 0.0);
+        while (!heap.isEmpty()) {
+            int vertex = heap.poll();
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                double weight = super.matrix.weight(adjacency.column(arc));
+                if (weight < 0)
+                    throw new UnsupportedOperationException("Cannot support negative weights in Dijkstra.");
+                int adjacent = adjacency.neighbor(arc);
+                double distance = distances[vertex] + weight;
+                if (distance < distances[adjacent]) {
+                    distances[adjacent] = distance;
+                    predecessors[adjacent] = vertex;
+                    heap.insertOrDecrease(adjacent, distance);
+                }
+            }
         }
-        vertexDistances.forEach(element -> {
-            if (element.predecessor == null)
-                return;
-            Edge minimunEdge = Edge.getEdgeByVertexes(element.predecessor, element.vertex);
-            dijkstraVisitGraph.addEdge(minimunEdge);
-            dijkstraVisitGraph.setEdgeWeight(minimunEdge, element.distance);
-        });
-        return dijkstraVisitGraph;
+
+        return this.treeOf(predecessors, distances);
     }
 
     public static class VertexDistance {
@@ -244,32 +307,192 @@ public class IncidMatrixUndirWeight extends IncidMatrixUndir implements Weighted
     }
 
     /**
-     * @param integer
-     * @return Currently unsupported, throws an UnsupportedOperationException.
+     * Minimum spanning tree of the connected component of the vertex, see {@link #getPrimMST(Integer, boolean)}.
+     *
+     * @param integer the root of the tree
+     * @return the minimum spanning tree, the vertexes outside the component are left isolated.
      * @throws UnsupportedOperationException
-     * @throws IllegalArgumentException
+     * @throws IllegalArgumentException      if the vertex does not belong to the graph.
      */
     @Override
     public WeightedGraph getPrimMST(Integer integer) throws UnsupportedOperationException, IllegalArgumentException {
-        throw new UnsupportedOperationException(UNSUPPORTED_IMPLEMENTATION);
+        return this.getPrimMST(integer, false);
     }
 
     /**
-     * @return Currently unsupported, throws an UnsupportedOperationException.
+     * Prim's algorithm, the tree grows from the vertex through the lightest edge leaving it.
+     * On sparse graphs the vertexes wait in an indexed binary heap, O(E log V);
+     * when E log V exceeds V^2 the lightest vertex is found scanning an array of keys instead, O(V^2).
+     * With spanningForest the visit restarts from the lowest vertex not reached yet,
+     * until every component has its tree.
+     *
+     * @param integer        the root of the first tree
+     * @param spanningForest true to span every component, false for the component of the vertex only
+     * @return the minimum spanning tree (or forest) with every vertex and the storage mode of this graph.
+     * @throws IllegalArgumentException if the vertex does not belong to the graph.
+     */
+    public WeightedGraph getPrimMST(Integer integer, boolean spanningForest) throws IllegalArgumentException {
+        if (!this.containsVertex(integer))
+            throw new IllegalArgumentException(String.format(VERTEX_NOT_PRESENT, integer));
+
+        Adjacency adjacency = this.adjacency();
+        int vertexes = this.size();
+        double[] keys = new double[vertexes];
+        int[] parents = new int[vertexes];
+        boolean[] inTree = new boolean[vertexes];
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        boolean dense = (long) super.matrix.columns() * (32 - Integer.numberOfLeadingZeros(vertexes)) > (long) vertexes * vertexes;
+        // shared by the trees of a forest, it's empty again after each one
+        IndexedMinHeap heap = dense ? null : new IndexedMinHeap(vertexes);
+        int root = integer;
+        int unreached = 0;
+        do {
+            if (dense)
+                this.primByScan(adjacency, root, keys, parents, inTree);
+            else
+                this.primByHeap(adjacency, root, keys, parents, inTree, heap);
+            while (unreached < vertexes && inTree[unreached])
+                ++unreached;
+            root = unreached;
+        } while (spanningForest && root < vertexes);
+
+        return this.treeOf(parents, keys);
+    }
+
+    private void primByHeap(Adjacency adjacency, int root, double[] keys, int[] parents, boolean[] inTree, IndexedMinHeap heap) {
+        keys[root] = 0.0;
+        heap.insertOrDecrease(root, 0.0);
+        while (!heap.isEmpty()) {
+            int vertex = heap.poll();
+            inTree[vertex] = true;
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                int adjacent = adjacency.neighbor(arc);
+                double weight = super.matrix.weight(adjacency.column(arc));
+                if (!inTree[adjacent] && weight < keys[adjacent]) {
+                    keys[adjacent] = weight;
+                    parents[adjacent] = vertex;
+                    heap.insertOrDecrease(adjacent, weight);
+                }
+            }
+        }
+    }
+
+    private void primByScan(Adjacency adjacency, int root, double[] keys, int[] parents, boolean[] inTree) {
+        keys[root] = 0.0;
+        for (int vertex = root; vertex >= 0; ) {
+            inTree[vertex] = true;
+            for (int arc = adjacency.start(vertex); arc < adjacency.end(vertex); ++arc) {
+                int adjacent = adjacency.neighbor(arc);
+                double weight = super.matrix.weight(adjacency.column(arc));
+                if (!inTree[adjacent] && weight < keys[adjacent]) {
+                    keys[adjacent] = weight;
+                    parents[adjacent] = vertex;
+                }
+            }
+            vertex = -1;
+            double lightest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < keys.length; ++i) {
+                if (!inTree[i] && keys[i] < lightest) {
+                    lightest = keys[i];
+                    vertex = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kruskal's algorithm: the weights are copied out of the matrix and replaced by their rank,
+     * each edge is packed in a long as (rank, column) and the keys are sorted with Arrays.parallelSort,
+     * so edges of equal weight keep the order of their columns.
+     * The edges are then taken in order through a {@link DisjointSet}, O(E log E) overall.
+     * On a disconnected graph the result is a minimum spanning forest.
+     *
+     * @return the minimum spanning tree, with the vertexes and the storage mode of this graph.
      * @throws UnsupportedOperationException
      */
     @Override
     public WeightedGraph getKruskalMST() throws UnsupportedOperationException {
-        throw new UnsupportedOperationException(UNSUPPORTED_IMPLEMENTATION);
+        int edges = super.matrix.columns();
+        double[] distinctWeights = new double[edges];
+        for (int i = 0; i < edges; ++i)
+            distinctWeights[i] = super.matrix.weight(i);
+        Arrays.parallelSort(distinctWeights);
+        int distinct = 0;
+        for (int i = 0; i < edges; ++i) {
+            if (distinct == 0 || Double.compare(distinctWeights[distinct - 1], distinctWeights[i]) != 0)
+                distinctWeights[distinct++] = distinctWeights[i];
+        }
+        long[] keys = new long[edges];
+        for (int i = 0; i < edges; ++i) {
+            long rank = Arrays.binarySearch(distinctWeights, 0, distinct, super.matrix.weight(i));
+            keys[i] = rank << 32 | i;
+        }
+        Arrays.parallelSort(keys);
+
+        DisjointSet disjointSet = new DisjointSet(this.size());
+        int treeEdges = Math.max(this.size() - 1, 0);
+        int[] sources = new int[treeEdges];
+        int[] targets = new int[treeEdges];
+        double[] weights = new double[treeEdges];
+        int taken = 0;
+        for (int i = 0; i < edges && taken < treeEdges; ++i) {
+            int column = (int) keys[i];
+            int source = super.matrix.source(column);
+            int target = super.matrix.target(column);
+            if (disjointSet.union(source, target)) {
+                sources[taken] = source;
+                targets[taken] = target;
+                weights[taken++] = super.matrix.weight(column);
+            }
+        }
+        IncidMatrixUndirWeight mst = new IncidMatrixUndirWeight(this.storageMode.resultMode());
+        mst.loadEdges(this.size(), sources, targets, weights, taken);
+        return mst;
     }
 
     /**
-     * @return Currently unsupported, throws an UnsupportedOperationException.
-     * @throws UnsupportedOperationException
+     * All-pairs shortest paths as a graph: every vertex of this graph and an edge between each pair of
+     * distinct vertexes connected by a path, weighted with their distance.
+     * The result has up to V * (V - 1) / 2 edges, so it's always stored as {@link StorageMode#SPARSE},
+     * {@link #getFloydWarshallMatrix()} gives the same distances (and the paths) in a compact form.
+     *
+     * @return the distance graph.
+     * @throws UnsupportedOperationException if an edge has a negative weight.
+     * @throws IllegalArgumentException      if the graph has more than 46340 vertexes, see {@link #getFloydWarshallMatrix()}.
      */
     @Override
     public WeightedGraph getFloydWarshallShortestPaths() throws UnsupportedOperationException {
-        throw new UnsupportedOperationException(UNSUPPORTED_IMPLEMENTATION);
+        ShortestPathMatrix shortestPaths = this.getFloydWarshallMatrix();
+        IncidMatrixUndirWeight distanceGraph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < this.size(); ++i)
+            distanceGraph.addVertex();
+        for (int i = 0; i < this.size(); ++i) {
+            for (int j = i + 1; j < this.size(); ++j) {
+                if (shortestPaths.getNextHop(i, j) >= 0)
+                    distanceGraph.addColumn(i, j, shortestPaths.getDistance(i, j));
+            }
+        }
+        return distanceGraph;
+    }
+
+    /**
+     * Cache-blocked Floyd-Warshall, O(V^3) time and O(V^2) memory, the independent tiles of each
+     * phase are relaxed in parallel (see {@link BlockedFloydWarshall}).
+     * The V x V tables are Java arrays, so the graph can have at most 46340 vertexes (V^2 must fit in an int),
+     * 16 bytes a cell: about 34 GB of heap at the limit.
+     *
+     * @return the distance and the next hop between every pair of vertexes.
+     * @throws UnsupportedOperationException if an edge has a negative weight, as it's a negative cycle
+     *                                       in an undirected graph.
+     * @throws IllegalArgumentException      if the graph has more than 46340 vertexes.
+     */
+    public ShortestPathMatrix getFloydWarshallMatrix() throws UnsupportedOperationException {
+        for (int i = 0; i < super.matrix.columns(); ++i) {
+            if (super.matrix.weight(i) < 0)
+                throw new UnsupportedOperationException("Cannot support negative weights in Floyd-Warshall, an undirected negative edge is a negative cycle.");
+        }
+        return BlockedFloydWarshall.solve(super.matrix);
     }
 
     @Override
@@ -0,0 +1,125 @@
+package it.uniupo.graph.impl;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Storage of an undirected incidence matrix: a row for each vertex and a column for each edge.
+ * Each column keeps the source/target of its edge in the orientation it was inserted with,
+ * and the weight shared by its two incident cells.
+ * Columns have no meaningful order, removing one may move another column into its place.
+ */
+interface IncidenceStorage extends AutoCloseable {
+
+    /**
+     * Value of a cell whose vertex is not an endpoint of the edge.
+     */
+    double NOT_INCIDENT = Double.POSITIVE_INFINITY;
+
+    /**
+     * @return the number of rows (vertexes).
+     */
+    int rows();
+
+    /**
+     * @return the number of columns (edges).
+     */
+    int columns();
+
+    /**
+     * @return the weight of the edge if the vertex is one of its endpoints, {@link #NOT_INCIDENT} otherwise.
+     */
+    double get(int row, int column);
+
+    /**
+     * @return true if the vertex of the row is one of the endpoints of the edge of the column.
+     */
+    boolean isIncident(int row, int column);
+
+    /**
+     * Adds a row with no incident columns.
+     *
+     * @return the index of the new row.
+     */
+    int appendRow();
+
+    /**
+     * Removes the marked rows together with every column incident to them, in a single pass:
+     * the remaining rows keep their order and are numbered again from 0,
+     * the endpoints of the remaining columns are relabeled accordingly.
+     *
+     * @param removed for each row, true if it's being removed
+     */
+    void removeRows(boolean[] removed);
+
+    /**
+     * Adds a column, the caller is responsible for not adding the same edge twice.
+     *
+     * @return the index of the new column.
+     */
+    int appendColumn(int source, int target, double weight);
+
+    /**
+     * Removes a column moving the last column into its place.
+     *
+     * @param column the column being removed
+     */
+    void removeColumn(int column);
+
+    int source(int column);
+
+    int target(int column);
+
+    double weight(int column);
+
+    void setWeight(int column, double weight);
+
+    /**
+     * Calls the action with every column incident to the row.
+     *
+     * @param row    the vertex
+     * @param action consumer of the column indexes
+     */
+    void forEachIncident(int row, IntConsumer action);
+
+    /**
+     * Calls the action with the other endpoint of every column incident to the row.
+     *
+     * @param row    the vertex
+     * @param action consumer of the adjacent vertexes
+     */
+    default void forEachNeighbor(int row, IntConsumer action) {
+        this.forEachIncident(row, column -> action.accept(this.opposite(column, row)));
+    }
+
+    /**
+     * Tests whether an edge links the two rows: by default the column of the edge is looked up
+     * by the graph (in its edge index), a storage that can tell by itself, faster, ignores the lookup.
+     *
+     * @param row    a vertex
+     * @param other  another vertex
+     * @param lookup the column of the edge between two rows, -1 if there's none
+     * @return true if an edge links the two rows.
+     */
+    default boolean isAdjacent(int row, int other, IntBinaryOperator lookup) {
+        return lookup.applyAsInt(row, other) >= 0;
+    }
+
+    /**
+     * @param column the column of the edge
+     * @param row    one of the endpoints of the edge
+     * @return the other endpoint of the edge.
+     */
+    default int opposite(int column, int row) {
+        int source = this.source(column);
+        return source == row ? this.target(column) : source;
+    }
+
+    /**
+     * Releases the memory that the garbage collector does not manage, if any:
+     * the storage can no longer be used. Nothing to do for the storages on the heap.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,111 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of the vertexes 0..n-1 keyed by a double priority.
+ * The position of each vertex in the heap is tracked, so that a key can be decreased
+ * in O(log n) without searching the vertex, and no object is allocated per operation.
+ */
+final class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size;
+
+    /**
+     * @param capacity the number of vertexes, ids go from 0 to capacity - 1
+     */
+    IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return true if the vertex is currently in the heap.
+     */
+    boolean contains(int vertex) {
+        return positions[vertex] >= 0;
+    }
+
+    /**
+     * Inserts the vertex with the given key, or lowers its key if it's already in the heap.
+     * A key greater than the current one is ignored.
+     */
+    void insertOrDecrease(int vertex, double key) {
+        int position = positions[vertex];
+        if (position < 0) {
+            position = size++;
+            heap[position] = vertex;
+            positions[vertex] = position;
+        } else if (key >= keys[vertex]) {
+            return;
+        }
+        keys[vertex] = key;
+        this.siftUp(position);
+    }
+
+    /**
+     * Removes the vertex with the lowest key.
+     *
+     * @return the removed vertex.
+     */
+    int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            this.siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * @return the key the vertex had when it was last inserted or decreased.
+     */
+    double key(int vertex) {
+        return keys[vertex];
+    }
+
+    private void siftUp(int position) {
+        int vertex = heap[position];
+        double key = keys[vertex];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[heap[parent]] <= key)
+                break;
+            this.place(heap[parent], position);
+            position = parent;
+        }
+        this.place(vertex, position);
+    }
+
+    private void siftDown(int position) {
+        int vertex = heap[position];
+        double key = keys[vertex];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+                ++child;
+            if (key <= keys[heap[child]])
+                break;
+            this.place(heap[child], position);
+            position = child;
+        }
+        this.place(vertex, position);
+    }
+
+    private void place(int vertex, int position) {
+        heap[position] = vertex;
+        positions[vertex] = position;
+    }
+}
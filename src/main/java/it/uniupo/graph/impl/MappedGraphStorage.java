@@ -0,0 +1,157 @@
+package it.uniupo.graph.impl;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only view of a graph snapshot mapped in memory (see {@link GraphSnapshot}), nothing is copied on the heap:
+ * the endpoints and weights of the columns serve as the incidence matrix, the CSR arrays as its adjacency,
+ * so the incident columns of a vertex are visited in O(deg) through its arcs.
+ * Every change throws {@link UnsupportedOperationException}.
+ */
+final class MappedGraphStorage implements IncidenceStorage, Adjacency {
+
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final String READ_ONLY = "The graph is mapped read-only from a snapshot";
+
+    private final MemorySegment segment;
+    private final int vertexes;
+    private final int edges;
+    private final int arcs;
+    private final long weights;
+    private final long sources;
+    private final long targets;
+    private final long offsets;
+    private final long neighbors;
+    private final long columns;
+
+    /**
+     * @param segment  the mapped snapshot, sections laid out as described by {@link GraphSnapshot}
+     * @param vertexes the number of vertexes
+     * @param edges    the number of edges
+     * @param arcs     the number of arcs of the CSR adjacency
+     */
+    MappedGraphStorage(MemorySegment segment, int vertexes, int edges, int arcs) {
+        this.segment = segment;
+        this.vertexes = vertexes;
+        this.edges = edges;
+        this.arcs = arcs;
+        this.weights = GraphSnapshot.HEADER_BYTES;
+        this.sources = weights + Double.BYTES * (long) edges;
+        this.targets = sources + Integer.BYTES * (long) edges;
+        this.offsets = targets + Integer.BYTES * (long) edges;
+        this.neighbors = offsets + Integer.BYTES * (vertexes + 1L);
+        this.columns = neighbors + Integer.BYTES * (long) arcs;
+    }
+
+    /**
+     * @return the number of bytes of a snapshot with the given sizes.
+     */
+    static long bytes(int vertexes, int edges, int arcs) {
+        return GraphSnapshot.HEADER_BYTES + Double.BYTES * (long) edges
+                + Integer.BYTES * (2L * edges + vertexes + 1L + 2L * arcs);
+    }
+
+    @Override
+    public int rows() {
+        return vertexes;
+    }
+
+    @Override
+    public int columns() {
+        return edges;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return this.isIncident(row, column) ? this.weight(column) : NOT_INCIDENT;
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return this.source(column) == row || this.target(column) == row;
+    }
+
+    @Override
+    public int appendRow() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void removeRows(boolean[] removed) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void removeColumn(int column) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int source(int column) {
+        return segment.get(INT, sources + Integer.BYTES * (long) column);
+    }
+
+    @Override
+    public int target(int column) {
+        return segment.get(INT, targets + Integer.BYTES * (long) column);
+    }
+
+    @Override
+    public double weight(int column) {
+        return segment.get(DOUBLE, weights + Double.BYTES * (long) column);
+    }
+
+    @Override
+    public void setWeight(int column, double weight) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    /**
+     * Visits the arcs of the row, O(deg).
+     */
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        for (int arc = this.start(row); arc < this.end(row); ++arc)
+            action.accept(this.column(arc));
+    }
+
+    @Override
+    public int vertexes() {
+        return vertexes;
+    }
+
+    @Override
+    public int arcs() {
+        return arcs;
+    }
+
+    @Override
+    public int start(int vertex) {
+        return segment.get(INT, offsets + Integer.BYTES * (long) vertex);
+    }
+
+    @Override
+    public int end(int vertex) {
+        return segment.get(INT, offsets + Integer.BYTES * (vertex + 1L));
+    }
+
+    @Override
+    public int neighbor(int arc) {
+        return segment.get(INT, neighbors + Integer.BYTES * (long) arc);
+    }
+
+    @Override
+    public int column(int arc) {
+        return segment.get(INT, columns + Integer.BYTES * (long) arc);
+    }
+}
@@ -0,0 +1,27 @@
+package it.uniupo.graph.impl;
+
+import java.util.List;
+
+/**
+ * Thrown when the shortest paths from a vertex are not defined,
+ * as a cycle of negative total weight is reachable from it.
+ */
+public class NegativeCycleException extends RuntimeException {
+
+    private final List<Integer> cycle;
+
+    /**
+     * @param cycle the vertexes of the cycle in order, the first vertex is repeated at the end
+     */
+    public NegativeCycleException(List<Integer> cycle) {
+        super(String.format("The graph contains a negative cycle : %s", cycle));
+        this.cycle = List.copyOf(cycle);
+    }
+
+    /**
+     * @return the vertexes of the cycle in order, the first vertex is repeated at the end.
+     */
+    public List<Integer> getCycle() {
+        return cycle;
+    }
+}
@@ -0,0 +1,305 @@
+package it.uniupo.graph.impl;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.Cleaner;
+import java.util.function.IntConsumer;
+
+/**
+ * Storage of an incidence matrix outside the Java heap, in memory segments allocated from shared arenas:
+ * the garbage collector never scans nor copies it, and {@link #close()} releases it at once
+ * (a cleaner releases it anyway once the storage is unreachable, should it not be closed).
+ * Like the sparse storage, each column keeps only its endpoints and its weight, O(V + E) memory.
+ * The incident columns of a vertex form a doubly-linked list threaded through the columns
+ * (each column has a link pair for its source and one for its target, a self-loop uses only the first),
+ * so that columns are added and removed in O(1) and the columns of a vertex are visited in O(deg).
+ * The arenas are shared, so the storage can be read by many threads (e.g. the parallel visits).
+ * Only the matrix is kept here, 32 bytes a column: the edge index and the CSR adjacency of the graph
+ * stay on the heap, see {@link StorageMode#OFF_HEAP}.
+ */
+final class OffHeapIncidenceStorage implements IncidenceStorage {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int ROWS = 0;
+    private static final int COLUMNS = 1;
+    private static final int NONE = -1;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE;
+
+    /**
+     * The arenas of the rows and of the columns, shared with the cleaner (which must not reach the storage).
+     */
+    private final Arena[] arenas = new Arena[2];
+    private final Cleaner.Cleanable cleanable;
+    private MemorySegment heads;
+    private MemorySegment sources;
+    private MemorySegment targets;
+    private MemorySegment weights;
+    private MemorySegment nextAtSource;
+    private MemorySegment previousAtSource;
+    private MemorySegment nextAtTarget;
+    private MemorySegment previousAtTarget;
+    private int rowCapacity;
+    private int columnCapacity;
+    private int rows;
+    private int columns;
+
+    /**
+     * Allocates an empty matrix, with room for the given number of rows and columns.
+     *
+     * @param rowCapacity    number of vertexes that fit before growing
+     * @param columnCapacity number of edges that fit before growing
+     */
+    OffHeapIncidenceStorage(int rowCapacity, int columnCapacity) {
+        this.allocateRows(Math.max(rowCapacity, DEFAULT_CAPACITY));
+        this.allocateColumns(Math.max(columnCapacity, DEFAULT_CAPACITY));
+        Arena[] held = this.arenas;
+        this.cleanable = CLEANER.register(this, () -> release(held));
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return this.isIncident(row, column) ? this.weight(column) : NOT_INCIDENT;
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return this.source(column) == row || this.target(column) == row;
+    }
+
+    @Override
+    public int appendRow() {
+        if (rows == rowCapacity)
+            this.allocateRows(rowCapacity * 2);
+        heads.setAtIndex(INT, rows, NONE);
+        return rows++;
+    }
+
+    /**
+     * Removes the incident columns through the lists of the marked rows, O(deg) each,
+     * then moves the remaining heads up and relabels the endpoints through a table, O(V + E).
+     */
+    @Override
+    public void removeRows(boolean[] removed) {
+        for (int i = 0; i < rows; ++i) {
+            if (removed[i]) {
+                while (this.head(i) != NONE)
+                    this.removeColumn(this.head(i));
+            }
+        }
+        int[] labels = new int[rows];
+        int kept = 0;
+        for (int i = 0; i < rows; ++i) {
+            if (!removed[i]) {
+                heads.setAtIndex(INT, kept, this.head(i));
+                labels[i] = kept++;
+            }
+        }
+        rows = kept;
+        for (int i = 0; i < columns; ++i) {
+            sources.setAtIndex(INT, i, labels[this.source(i)]);
+            targets.setAtIndex(INT, i, labels[this.target(i)]);
+        }
+    }
+
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        if (columns == columnCapacity)
+            this.allocateColumns(columnCapacity * 2);
+        int column = columns++;
+        sources.setAtIndex(INT, column, source);
+        targets.setAtIndex(INT, column, target);
+        weights.setAtIndex(DOUBLE, column, weight);
+        this.link(source, column, nextAtSource, previousAtSource);
+        if (source != target)
+            this.link(target, column, nextAtTarget, previousAtTarget);
+        return column;
+    }
+
+    /**
+     * Unlinks the column from the lists of its endpoints, then moves the last column into its place
+     * and points its neighbours in the lists (or the heads) to the new position.
+     */
+    @Override
+    public void removeColumn(int column) {
+        int source = this.source(column);
+        int target = this.target(column);
+        this.unlink(source, column, nextAtSource, previousAtSource);
+        if (source != target)
+            this.unlink(target, column, nextAtTarget, previousAtTarget);
+        int last = --columns;
+        if (column == last)
+            return;
+        source = this.source(last);
+        target = this.target(last);
+        sources.setAtIndex(INT, column, source);
+        targets.setAtIndex(INT, column, target);
+        weights.setAtIndex(DOUBLE, column, this.weight(last));
+        this.move(source, last, column, nextAtSource, previousAtSource);
+        if (source != target)
+            this.move(target, last, column, nextAtTarget, previousAtTarget);
+    }
+
+    @Override
+    public int source(int column) {
+        return sources.getAtIndex(INT, column);
+    }
+
+    @Override
+    public int target(int column) {
+        return targets.getAtIndex(INT, column);
+    }
+
+    @Override
+    public double weight(int column) {
+        return weights.getAtIndex(DOUBLE, column);
+    }
+
+    @Override
+    public void setWeight(int column, double weight) {
+        weights.setAtIndex(DOUBLE, column, weight);
+    }
+
+    /**
+     * Follows the list of the row, O(deg).
+     */
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        for (int column = this.head(row); column != NONE; column = this.next(column, row))
+            action.accept(column);
+    }
+
+    /**
+     * Frees the memory of the storage, which can no longer be used. Closing it again does nothing.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    private static void release(Arena[] arenas) {
+        for (Arena arena : arenas)
+            arena.close();
+    }
+
+    private int head(int row) {
+        return heads.getAtIndex(INT, row);
+    }
+
+    /**
+     * @return the column after the given one in the list of the row.
+     */
+    private int next(int column, int row) {
+        return this.source(column) == row
+                ? nextAtSource.getAtIndex(INT, column)
+                : nextAtTarget.getAtIndex(INT, column);
+    }
+
+    /**
+     * Sets the next (or previous) link of the column in the list of the row,
+     * among the links of the endpoint the row is.
+     */
+    private void setLink(int column, int row, boolean next, int value) {
+        boolean asSource = this.source(column) == row;
+        if (next)
+            (asSource ? nextAtSource : nextAtTarget).setAtIndex(INT, column, value);
+        else
+            (asSource ? previousAtSource : previousAtTarget).setAtIndex(INT, column, value);
+    }
+
+    /**
+     * Puts the column at the head of the list of the row.
+     */
+    private void link(int row, int column, MemorySegment nextLinks, MemorySegment previousLinks) {
+        int head = this.head(row);
+        nextLinks.setAtIndex(INT, column, head);
+        previousLinks.setAtIndex(INT, column, NONE);
+        if (head != NONE)
+            this.setLink(head, row, false, column);
+        heads.setAtIndex(INT, row, column);
+    }
+
+    private void unlink(int row, int column, MemorySegment nextLinks, MemorySegment previousLinks) {
+        int previous = previousLinks.getAtIndex(INT, column);
+        int next = nextLinks.getAtIndex(INT, column);
+        if (previous == NONE)
+            heads.setAtIndex(INT, row, next);
+        else
+            this.setLink(previous, row, true, next);
+        if (next != NONE)
+            this.setLink(next, row, false, previous);
+    }
+
+    /**
+     * Copies the links of a column of the row from one position to another,
+     * and points its neighbours in the list of the row to the new position.
+     */
+    private void move(int row, int from, int to, MemorySegment nextLinks, MemorySegment previousLinks) {
+        int previous = previousLinks.getAtIndex(INT, from);
+        int next = nextLinks.getAtIndex(INT, from);
+        nextLinks.setAtIndex(INT, to, next);
+        previousLinks.setAtIndex(INT, to, previous);
+        if (previous == NONE)
+            heads.setAtIndex(INT, row, to);
+        else
+            this.setLink(previous, row, true, to);
+        if (next != NONE)
+            this.setLink(next, row, false, to);
+    }
+
+    /**
+     * Moves the heads to a new arena of the given capacity and frees the old one.
+     */
+    private void allocateRows(int capacity) {
+        Arena arena = Arena.ofShared();
+        MemorySegment newHeads = arena.allocate(INT.byteSize() * capacity, INT.byteAlignment());
+        if (arenas[ROWS] != null) {
+            MemorySegment.copy(heads, 0, newHeads, 0, INT.byteSize() * rows);
+            arenas[ROWS].close();
+        }
+        arenas[ROWS] = arena;
+        heads = newHeads;
+        rowCapacity = capacity;
+    }
+
+    /**
+     * Moves the columns to a new arena of the given capacity and frees the old one.
+     */
+    private void allocateColumns(int capacity) {
+        Arena arena = Arena.ofShared();
+        MemorySegment[] segments = {sources, targets, nextAtSource, previousAtSource, nextAtTarget, previousAtTarget};
+        for (int i = 0; i < segments.length; ++i)
+            segments[i] = this.reallocate(arena, segments[i], INT, capacity);
+        MemorySegment newWeights = this.reallocate(arena, weights, DOUBLE, capacity);
+        if (arenas[COLUMNS] != null)
+            arenas[COLUMNS].close();
+        arenas[COLUMNS] = arena;
+        sources = segments[0];
+        targets = segments[1];
+        nextAtSource = segments[2];
+        previousAtSource = segments[3];
+        nextAtTarget = segments[4];
+        previousAtTarget = segments[5];
+        weights = newWeights;
+        columnCapacity = capacity;
+    }
+
+    private MemorySegment reallocate(Arena arena, MemorySegment segment, ValueLayout layout, int capacity) {
+        MemorySegment newSegment = arena.allocate(layout.byteSize() * capacity, layout.byteAlignment());
+        if (segment != null)
+            MemorySegment.copy(segment, 0, newSegment, 0, layout.byteSize() * columns);
+        return newSegment;
+    }
+}
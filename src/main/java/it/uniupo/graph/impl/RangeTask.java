@@ -0,0 +1,58 @@
+package it.uniupo.graph.impl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork/join task that calls an action with every index of a range,
+ * halving the range until it's small enough to be run by a single thread.
+ */
+final class RangeTask extends RecursiveAction {
+
+    private static final int THRESHOLD = 1 << 14;
+
+    private final int from;
+    private final int to;
+    private final IntConsumer action;
+
+    /**
+     * @param from   the first index
+     * @param to     the index after the last one
+     * @param action the action called with each index, from any thread of the pool
+     */
+    RangeTask(int from, int to, IntConsumer action) {
+        this.from = from;
+        this.to = to;
+        this.action = action;
+    }
+
+    /**
+     * Runs the action over the range in the pool, or directly in the calling thread
+     * when the range is too small to be worth splitting.
+     *
+     * @param pool   the pool
+     * @param from   the first index
+     * @param to     the index after the last one
+     * @param action the action called with each index
+     */
+    static void run(ForkJoinPool pool, int from, int to, IntConsumer action) {
+        if (to - from <= THRESHOLD) {
+            for (int i = from; i < to; ++i)
+                action.accept(i);
+        } else {
+            pool.invoke(new RangeTask(from, to, action));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            for (int i = from; i < to; ++i)
+                action.accept(i);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, action), new RangeTask(middle, to, action));
+    }
+}
@@ -0,0 +1,100 @@
+package it.uniupo.graph.impl;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only view of another storage, for the graphs shared between threads (see {@link ConcurrentWeightedGraph}):
+ * the reads go to the storage, every change throws {@link UnsupportedOperationException}
+ * before anything is touched, and closing the view does not release the storage.
+ */
+final class ReadOnlyIncidenceStorage implements IncidenceStorage {
+
+    private static final String READ_ONLY = "The graph is a read-only snapshot";
+
+    private final IncidenceStorage storage;
+
+    ReadOnlyIncidenceStorage(IncidenceStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public int rows() {
+        return storage.rows();
+    }
+
+    @Override
+    public int columns() {
+        return storage.columns();
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return storage.get(row, column);
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return storage.isIncident(row, column);
+    }
+
+    @Override
+    public int appendRow() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void removeRows(boolean[] removed) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void removeColumn(int column) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public int source(int column) {
+        return storage.source(column);
+    }
+
+    @Override
+    public int target(int column) {
+        return storage.target(column);
+    }
+
+    @Override
+    public double weight(int column) {
+        return storage.weight(column);
+    }
+
+    @Override
+    public void setWeight(int column, double weight) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        storage.forEachIncident(row, action);
+    }
+
+    @Override
+    public void forEachNeighbor(int row, IntConsumer action) {
+        storage.forEachNeighbor(row, action);
+    }
+
+    @Override
+    public boolean isAdjacent(int row, int other, IntBinaryOperator lookup) {
+        return storage.isAdjacent(row, other, lookup);
+    }
+
+    @Override
+    public int opposite(int column, int row) {
+        return storage.opposite(column, row);
+    }
+}
@@ -0,0 +1,58 @@
+package it.uniupo.graph.impl;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Linear scans over the primitive arrays of the storages, the O(E) part of visiting the incident columns of a vertex.
+ * They run on {@link VectorRowScan} (SIMD, through the incubating Vector API) when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, and on the plain loops of this class otherwise
+ * or when the system property {@code it.uniupo.graph.scalar} is true.
+ */
+final class RowScan {
+
+    static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("it.uniupo.graph.scalar");
+
+    private RowScan() {
+    }
+
+    /**
+     * Calls the action with the index of every cell lower than the bound, in ascending order.
+     *
+     * @param cells  the row
+     * @param length the number of cells scanned, from 0
+     * @param bound  the exclusive upper bound, NaN cells are never lower
+     */
+    static void forEachBelow(double[] cells, int length, double bound, IntConsumer action) {
+        if (VECTORIZED)
+            VectorRowScan.forEachBelow(cells, length, bound, action);
+        else
+            scalarForEachBelow(cells, length, bound, action);
+    }
+
+    /**
+     * Calls the action with every index i where first[i] or second[i] is the value, in ascending order.
+     *
+     * @param length the number of positions scanned, from 0
+     */
+    static void forEachEqual(int[] first, int[] second, int length, int value, IntConsumer action) {
+        if (VECTORIZED)
+            VectorRowScan.forEachEqual(first, second, length, value, action);
+        else
+            scalarForEachEqual(first, second, length, value, action);
+    }
+
+    static void scalarForEachBelow(double[] cells, int length, double bound, IntConsumer action) {
+        for (int i = 0; i < length; ++i) {
+            if (cells[i] < bound)
+                action.accept(i);
+        }
+    }
+
+    static void scalarForEachEqual(int[] first, int[] second, int length, int value, IntConsumer action) {
+        for (int i = 0; i < length; ++i) {
+            if (first[i] == value || second[i] == value)
+                action.accept(i);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package it.uniupo.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All-pairs shortest paths of a graph with V vertexes, as two flat V * V row-major tables:
+ * the distance between each pair of vertexes and the first vertex after the source on a shortest path.
+ * Any path can be rebuilt by following the next hops, without keeping a tree for each source.
+ */
+public final class ShortestPathMatrix {
+
+    private final int size;
+    private final double[] distances;
+    private final int[] nextHops;
+
+    /**
+     * @param size      the number of vertexes
+     * @param distances the row-major distances, +∞ between unreachable vertexes
+     * @param nextHops  the row-major next hops, -1 between unreachable vertexes
+     */
+    ShortestPathMatrix(int size, double[] distances, int[] nextHops) {
+        this.size = size;
+        this.distances = distances;
+        this.nextHops = nextHops;
+    }
+
+    /**
+     * @return the number of vertexes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param source the first vertex
+     * @param target the last vertex
+     * @return the length of a shortest path, 0 from a vertex to itself, +∞ if the target is not reachable.
+     * @throws IllegalArgumentException if one of the vertexes does not belong to the graph.
+     */
+    public double getDistance(int source, int target) throws IllegalArgumentException {
+        return distances[this.cell(source, target)];
+    }
+
+    /**
+     * @param source the first vertex
+     * @param target the last vertex
+     * @return the vertex after the source on a shortest path, the target itself if they are adjacent
+     * on that path, the source if they are the same vertex, -1 if the target is not reachable.
+     * @throws IllegalArgumentException if one of the vertexes does not belong to the graph.
+     */
+    public int getNextHop(int source, int target) throws IllegalArgumentException {
+        return nextHops[this.cell(source, target)];
+    }
+
+    /**
+     * @param source the first vertex
+     * @param target the last vertex
+     * @return the vertexes of a shortest path, source and target included, empty if the target is not reachable.
+     * @throws IllegalArgumentException if one of the vertexes does not belong to the graph.
+     */
+    public List<Integer> getPath(int source, int target) throws IllegalArgumentException {
+        if (this.getNextHop(source, target) < 0)
+            return Collections.emptyList();
+        List<Integer> path = new ArrayList<>();
+        path.add(source);
+        for (int vertex = source; vertex != target; ) {
+            vertex = nextHops[vertex * size + target];
+            path.add(vertex);
+        }
+        return path;
+    }
+
+    private int cell(int source, int target) {
+        if (source < 0 || source >= size)
+            throw new IllegalArgumentException(String.format(IncidMatrixUndirWeight.VERTEX_NOT_PRESENT, source));
+        if (target < 0 || target >= size)
+            throw new IllegalArgumentException(String.format(IncidMatrixUndirWeight.VERTEX_NOT_PRESENT, target));
+        return source * size + target;
+    }
+}
@@ -0,0 +1,199 @@
+package it.uniupo.graph.impl;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Sparse storage of an incidence matrix: each column has exactly two incident cells,
+ * so only its endpoints and its weight are kept, O(V + E) memory instead of O(V * E).
+ * Every vertex has the list of its incident columns, and every column remembers its slot
+ * in the lists of its endpoints, so that columns are added and removed in O(1)
+ * and the incident columns of a vertex are visited in O(deg).
+ * A self-loop appears once in the list of its vertex.
+ */
+class SparseIncidenceStorage implements IncidenceStorage {
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int[] NO_COLUMNS = new int[0];
+
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private int[] sourceSlots;
+    private int[] targetSlots;
+    private int[][] incident;
+    private int[] degrees;
+    private int rows;
+    private int columns;
+
+    /**
+     * Allocates an empty matrix, with room for the given number of rows and columns.
+     *
+     * @param rowCapacity    number of vertexes that fit before growing
+     * @param columnCapacity number of edges that fit before growing
+     */
+    SparseIncidenceStorage(int rowCapacity, int columnCapacity) {
+        int capacity = Math.max(columnCapacity, DEFAULT_CAPACITY);
+        this.sources = new int[capacity];
+        this.targets = new int[capacity];
+        this.weights = new double[capacity];
+        this.sourceSlots = new int[capacity];
+        this.targetSlots = new int[capacity];
+        this.incident = new int[Math.max(rowCapacity, DEFAULT_CAPACITY)][];
+        this.degrees = new int[incident.length];
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return this.isIncident(row, column) ? weights[column] : NOT_INCIDENT;
+    }
+
+    @Override
+    public boolean isIncident(int row, int column) {
+        return sources[column] == row || targets[column] == row;
+    }
+
+    @Override
+    public int appendRow() {
+        if (rows == incident.length) {
+            incident = Arrays.copyOf(incident, rows * 2);
+            degrees = Arrays.copyOf(degrees, rows * 2);
+        }
+        incident[rows] = NO_COLUMNS;
+        degrees[rows] = 0;
+        return rows++;
+    }
+
+    /**
+     * Removes the incident columns through the lists of the marked rows, O(deg) each,
+     * then moves the remaining lists up and relabels the endpoints through a table, O(V + E).
+     */
+    @Override
+    public void removeRows(boolean[] removed) {
+        int[] labels = new int[rows];
+        int kept = 0;
+        for (int i = 0; i < rows; ++i) {
+            if (removed[i]) {
+                while (degrees[i] > 0)
+                    this.removeColumn(incident[i][degrees[i] - 1]);
+            }
+        }
+        for (int i = 0; i < rows; ++i) {
+            if (!removed[i]) {
+                incident[kept] = incident[i];
+                degrees[kept] = degrees[i];
+                labels[i] = kept++;
+            }
+        }
+        Arrays.fill(incident, kept, rows, null);
+        rows = kept;
+        for (int i = 0; i < columns; ++i) {
+            sources[i] = labels[sources[i]];
+            targets[i] = labels[targets[i]];
+        }
+    }
+
+    @Override
+    public int appendColumn(int source, int target, double weight) {
+        if (columns == sources.length) {
+            int capacity = columns * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            sourceSlots = Arrays.copyOf(sourceSlots, capacity);
+            targetSlots = Arrays.copyOf(targetSlots, capacity);
+        }
+        int column = columns++;
+        sources[column] = source;
+        targets[column] = target;
+        weights[column] = weight;
+        sourceSlots[column] = this.attach(source, column);
+        targetSlots[column] = source == target ? sourceSlots[column] : this.attach(target, column);
+        return column;
+    }
+
+    @Override
+    public void removeColumn(int column) {
+        this.detach(sources[column], sourceSlots[column]);
+        if (sources[column] != targets[column])
+            this.detach(targets[column], targetSlots[column]);
+        int last = --columns;
+        if (column != last) {
+            sources[column] = sources[last];
+            targets[column] = targets[last];
+            weights[column] = weights[last];
+            sourceSlots[column] = sourceSlots[last];
+            targetSlots[column] = targetSlots[last];
+            incident[sources[column]][sourceSlots[column]] = column;
+            incident[targets[column]][targetSlots[column]] = column;
+        }
+    }
+
+    @Override
+    public int source(int column) {
+        return sources[column];
+    }
+
+    @Override
+    public int target(int column) {
+        return targets[column];
+    }
+
+    @Override
+    public double weight(int column) {
+        return weights[column];
+    }
+
+    @Override
+    public void setWeight(int column, double weight) {
+        weights[column] = weight;
+    }
+
+    /**
+     * Visits the list of the row, O(deg).
+     */
+    @Override
+    public void forEachIncident(int row, IntConsumer action) {
+        int[] columnsOfRow = incident[row];
+        for (int i = 0; i < degrees[row]; ++i)
+            action.accept(columnsOfRow[i]);
+    }
+
+    /**
+     * Appends the column to the list of the row, doubling the list when it's full.
+     *
+     * @return the slot of the column in the list.
+     */
+    private int attach(int row, int column) {
+        if (degrees[row] == incident[row].length)
+            incident[row] = Arrays.copyOf(incident[row], Math.max(degrees[row] * 2, 4));
+        incident[row][degrees[row]] = column;
+        return degrees[row]++;
+    }
+
+    /**
+     * Removes a slot from the list of the row moving the last slot into its place,
+     * the column that owned the last slot is told about its new position.
+     */
+    private void detach(int row, int slot) {
+        int last = --degrees[row];
+        if (slot == last)
+            return;
+        int moved = incident[row][last];
+        incident[row][slot] = moved;
+        if (sources[moved] == row && sourceSlots[moved] == last)
+            sourceSlots[moved] = slot;
+        if (targets[moved] == row && targetSlots[moved] == last)
+            targetSlots[moved] = slot;
+    }
+}
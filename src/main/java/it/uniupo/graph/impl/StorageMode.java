@@ -0,0 +1,73 @@
+package it.uniupo.graph.impl;
+
+/**
+ * How the incidence matrix of a graph is stored.
+ */
+public enum StorageMode {
+
+    /**
+     * Every cell of the V x E matrix is stored, O(V * E) memory.
+     * Visiting the edges of a vertex scans its whole row, O(E).
+     */
+    DENSE,
+
+    /**
+     * Only the two incident cells of each column are stored, O(V + E) memory.
+     * Visiting the edges of a vertex is O(deg), meant for large sparse graphs.
+     */
+    SPARSE,
+
+    /**
+     * Like {@link #SPARSE}, but the columns are kept outside the Java heap in memory segments
+     * (see {@link OffHeapIncidenceStorage}), 32 bytes an edge, released by closing the graph.
+     * Only the columns: the edge index of the graph (24 to 48 bytes an edge) and its cached CSR adjacency
+     * (16 bytes an edge, once an algorithm has derived it, with 24 bytes an edge of temporary arrays at each rebuild)
+     * are primitive arrays on the heap, so about half of the bytes of a large graph still count against -Xmx.
+     * Those arrays hold no references, a collection does not trace them, which is what keeps full collections short.
+     */
+    OFF_HEAP,
+
+    /**
+     * Only for unweighted graphs: a V x V adjacency bitmap in long[] words (see {@link BitPackedIncidenceStorage})
+     * and the endpoints of the edges, O(V^2 / 8 + E) bytes. Adjacency tests are a single bit test
+     * and the neighbours of a vertex are visited in O(V / 64 + deg), meant for dense graphs.
+     * There are no lists of the edges of each vertex: visiting the incident columns of a vertex scans
+     * the endpoints of every edge, O(E), and adding a vertex beyond the capacity copies the whole bitmap.
+     */
+    BIT_PACKED,
+
+    /**
+     * Read-only, the graphs of a {@link GraphSnapshot} read the mapped file directly (see {@link MappedGraphStorage}):
+     * there is no edge index, the edges are looked up in O(log deg) in the sorted adjacency of the file.
+     * It's not a mode a graph can be created with, only {@link GraphSnapshot#graph()} and
+     * {@link GraphSnapshot#weightedGraph()} return MAPPED graphs.
+     */
+    MAPPED;
+
+    /**
+     * @param rowCapacity    number of vertexes that fit before growing
+     * @param columnCapacity number of edges that fit before growing
+     * @return a new empty storage of this mode.
+     * @throws IllegalArgumentException if the mode is {@link #MAPPED}, whose storage is a snapshot file.
+     */
+    IncidenceStorage newStorage(int rowCapacity, int columnCapacity) {
+        return switch (this) {
+            case DENSE -> new DenseIncidenceStorage(rowCapacity, columnCapacity);
+            case SPARSE -> new SparseIncidenceStorage(rowCapacity, columnCapacity);
+            case OFF_HEAP -> new OffHeapIncidenceStorage(rowCapacity, columnCapacity);
+            case BIT_PACKED -> new BitPackedIncidenceStorage(rowCapacity, columnCapacity);
+            case MAPPED -> throw new IllegalArgumentException("A MAPPED graph can only be opened from a GraphSnapshot");
+        };
+    }
+
+    /**
+     * The graphs computed from an OFF_HEAP graph (shortest paths, spanning trees) are kept on the heap,
+     * so that they can be left to the garbage collector like any other result; BIT_PACKED cannot hold their weights
+     * and MAPPED graphs cannot be changed, their results are SPARSE too.
+     *
+     * @return the mode of the graphs computed from a graph of this mode.
+     */
+    StorageMode resultMode() {
+        return this == DENSE ? DENSE : SPARSE;
+    }
+}
@@ -0,0 +1,58 @@
+package it.uniupo.graph.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.IntConsumer;
+
+/**
+ * SIMD kernels of {@link RowScan}, loaded only when the module jdk.incubator.vector is available.
+ * Each step compares a whole vector of cells and turns the result into a bit mask:
+ * a step with no match costs a load and a compare, the matches are visited bit by bit
+ * and the tail shorter than a vector is scanned by the scalar loop.
+ */
+final class VectorRowScan {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    private VectorRowScan() {
+    }
+
+    static void forEachBelow(double[] cells, int length, double bound, IntConsumer action) {
+        int i = 0;
+        for (int end = DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+            VectorMask<Double> below = DoubleVector.fromArray(DOUBLES, cells, i).compare(VectorOperators.LT, bound);
+            if (below.anyTrue())
+                visit(below.toLong(), i, action);
+        }
+        for (; i < length; ++i) {
+            if (cells[i] < bound)
+                action.accept(i);
+        }
+    }
+
+    static void forEachEqual(int[] first, int[] second, int length, int value, IntConsumer action) {
+        int i = 0;
+        for (int end = INTS.loopBound(length); i < end; i += INTS.length()) {
+            VectorMask<Integer> equal = IntVector.fromArray(INTS, first, i).compare(VectorOperators.EQ, value)
+                    .or(IntVector.fromArray(INTS, second, i).compare(VectorOperators.EQ, value));
+            if (equal.anyTrue())
+                visit(equal.toLong(), i, action);
+        }
+        for (; i < length; ++i) {
+            if (first[i] == value || second[i] == value)
+                action.accept(i);
+        }
+    }
+
+    private static void visit(long bits, int offset, IntConsumer action) {
+        while (bits != 0) {
+            action.accept(offset + Long.numberOfTrailingZeros(bits));
+            bits &= bits - 1;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package it.uniupo.graph.io;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming parser of edge lists, one edge per line as {@code u v} or {@code u v w}
+ * (vertexes are non-negative ints, weights are doubles, 0.0 when missing), separated by spaces or tabs.
+ * Blank lines and lines starting with '#' or '%' are skipped, but a SNAP header {@code # Nodes: n}
+ * sets the number of vertexes, so that the isolated ones are not lost.
+ * The input is read in chunks of 1 MB and parsed in place: no String is allocated per line,
+ * the weights are parsed exactly without allocation unless they have more than 15 significant digits.
+ * The edges go into a {@link IncidMatrixUndir.Builder}, with as many vertexes as the greatest one + 1.
+ */
+public final class EdgeListReader {
+
+    static final int CHUNK_BYTES = 1 << 20;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final byte[] NODES = "Nodes:".getBytes(StandardCharsets.US_ASCII);
+
+    private final IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder();
+    private final byte[] bytes;
+    private long line;
+    private int position;
+    private int vertexes;
+
+    private EdgeListReader(int chunkBytes) {
+        this.bytes = new byte[chunkBytes];
+    }
+
+    /**
+     * @param path the edge list file
+     * @return a builder holding the edges of the file, to be built as weighted or unweighted graph.
+     * @throws IOException if the file cannot be read or a line is not an edge.
+     */
+    public static IncidMatrixUndir.Builder read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * Reads the channel up to its end, which is left open.
+     *
+     * @param channel the edge list
+     * @return a builder holding the edges of the channel, to be built as weighted or unweighted graph.
+     * @throws IOException if the channel cannot be read or a line is not an edge.
+     */
+    public static IncidMatrixUndir.Builder read(ReadableByteChannel channel) throws IOException {
+        return read(channel, CHUNK_BYTES);
+    }
+
+    /**
+     * @param chunkBytes the size of the chunks, which bounds the length of a line
+     */
+    static IncidMatrixUndir.Builder read(ReadableByteChannel channel, int chunkBytes) throws IOException {
+        EdgeListReader reader = new EdgeListReader(chunkBytes);
+        reader.parse(channel);
+        return reader.builder.vertices(reader.vertexes);
+    }
+
+    /**
+     * Fills the chunk, parses its complete lines and moves the incomplete one to the front.
+     */
+    private void parse(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int filled = 0;
+        boolean end = false;
+        while (!end) {
+            buffer.clear().position(filled);
+            int read = channel.read(buffer);
+            if (read < 0)
+                end = true;
+            else
+                filled += read;
+            int lineStart = 0;
+            for (int i = 0; i < filled; ++i) {
+                if (bytes[i] == '\n') {
+                    this.parseLine(lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (end && lineStart < filled) {
+                this.parseLine(lineStart, filled);
+                lineStart = filled;
+            }
+            if (lineStart == 0 && filled == bytes.length)
+                throw new IOException(String.format("Line %d is longer than %d bytes", line + 1, bytes.length));
+            System.arraycopy(bytes, lineStart, bytes, 0, filled - lineStart);
+            filled -= lineStart;
+        }
+    }
+
+    private void parseLine(int from, int to) throws IOException {
+        ++line;
+        if (to > from && bytes[to - 1] == '\r')
+            --to;
+        position = from;
+        this.skipBlanks(to);
+        if (position == to)
+            return;
+        if (bytes[position] == '#' || bytes[position] == '%') {
+            this.parseComment(to);
+            return;
+        }
+        int source = this.parseVertex(to);
+        if (position == to || !isBlank(bytes[position]))
+            throw this.malformed();
+        this.skipBlanks(to);
+        int target = this.parseVertex(to);
+        this.skipBlanks(to);
+        double weight = 0.0;
+        if (position < to) {
+            weight = this.parseWeight(to);
+            this.skipBlanks(to);
+            if (position < to)
+                throw this.malformed();
+        }
+        vertexes = Math.max(vertexes, Math.max(source, target) + 1);
+        builder.edge(source, target, weight);
+    }
+
+    /**
+     * Looks for the SNAP header {@code # Nodes: n}, any other comment is skipped.
+     */
+    private void parseComment(int to) throws IOException {
+        ++position;
+        this.skipBlanks(to);
+        if (to - position < NODES.length)
+            return;
+        for (int i = 0; i < NODES.length; ++i) {
+            if (bytes[position + i] != NODES[i])
+                return;
+        }
+        position += NODES.length;
+        this.skipBlanks(to);
+        vertexes = Math.max(vertexes, this.parseVertex(to));
+    }
+
+    private int parseVertex(int to) throws IOException {
+        int start = position;
+        long value = 0;
+        while (position < to && bytes[position] >= '0' && bytes[position] <= '9') {
+            value = value * 10 + (bytes[position++] - '0');
+            if (value >= Integer.MAX_VALUE)
+                throw this.malformed();
+        }
+        if (position == start)
+            throw this.malformed();
+        return (int) value;
+    }
+
+    /**
+     * Parses [sign] digits [. digits] [e [sign] digits]. When the digits fit in 15 decimal digits
+     * and the power of ten is at most 22, both are exact doubles and a single multiplication or division
+     * gives the correctly rounded value (Clinger's fast path); otherwise the token goes to Double.parseDouble.
+     */
+    private double parseWeight(int to) throws IOException {
+        int start = position;
+        int tokenEnd = start;
+        while (tokenEnd < to && !isBlank(bytes[tokenEnd]))
+            ++tokenEnd;
+        boolean negative = bytes[position] == '-';
+        if (negative || bytes[position] == '+')
+            ++position;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        while (position < tokenEnd && bytes[position] >= '0' && bytes[position] <= '9') {
+            mantissa = mantissa * 10 + (bytes[position++] - '0');
+            seenDigit = true;
+            if (mantissa != 0)
+                ++digits;
+        }
+        if (position < tokenEnd && bytes[position] == '.') {
+            ++position;
+            while (position < tokenEnd && bytes[position] >= '0' && bytes[position] <= '9') {
+                mantissa = mantissa * 10 + (bytes[position++] - '0');
+                seenDigit = true;
+                --exponent;
+                if (mantissa != 0)
+                    ++digits;
+            }
+        }
+        if (seenDigit && position < tokenEnd && (bytes[position] == 'e' || bytes[position] == 'E')) {
+            ++position;
+            boolean negativeExponent = position < tokenEnd && bytes[position] == '-';
+            if (negativeExponent || (position < tokenEnd && bytes[position] == '+'))
+                ++position;
+            int exponentStart = position;
+            int value = 0;
+            while (position < tokenEnd && bytes[position] >= '0' && bytes[position] <= '9' && value < 100_000)
+                value = value * 10 + (bytes[position++] - '0');
+            if (position == exponentStart)
+                seenDigit = false;
+            exponent += negativeExponent ? -value : value;
+        }
+        if (seenDigit && position == tokenEnd && digits <= MAX_EXACT_DIGITS
+                && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        position = tokenEnd;
+        try {
+            return Double.parseDouble(new String(bytes, start, tokenEnd - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw this.malformed();
+        }
+    }
+
+    private void skipBlanks(int to) {
+        while (position < to && isBlank(bytes[position]))
+            ++position;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private IOException malformed() {
+        return new IOException(String.format("Line %d is not an edge", line));
+    }
+}
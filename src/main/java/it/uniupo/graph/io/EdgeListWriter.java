@@ -0,0 +1,124 @@
+package it.uniupo.graph.io;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+import it.uniupo.graph.impl.IncidMatrixUndirWeight;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a graph as an edge list that {@link EdgeListReader} reads back: a SNAP header
+ * {@code # Nodes: n Edges: m}, then one edge per line as {@code u v} or, for weighted graphs, {@code u v w}.
+ * The lines are formatted straight into a 1 MB buffer flushed to the channel when full,
+ * the weights are written as integers when they are, with Double.toString otherwise.
+ */
+public final class EdgeListWriter {
+
+    static final int CHUNK_BYTES = 1 << 20;
+
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+    private static final double MAX_INTEGRAL = 1e15;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+    private final byte[] digits = new byte[20];
+
+    private EdgeListWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes the edge list of the graph, replacing the file if it exists.
+     *
+     * @param graph the graph being saved, with its weights if it's an {@link IncidMatrixUndirWeight}
+     * @param path  the edge list file
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(IncidMatrixUndir graph, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(graph, channel);
+        }
+    }
+
+    /**
+     * Writes the edge list of the graph, the channel is left open.
+     *
+     * @param graph   the graph being saved, with its weights if it's an {@link IncidMatrixUndirWeight}
+     * @param channel the destination
+     * @throws IOException if the channel cannot be written.
+     */
+    public static void write(IncidMatrixUndir graph, WritableByteChannel channel) throws IOException {
+        EdgeListWriter writer = new EdgeListWriter(channel);
+        boolean weighted = graph instanceof IncidMatrixUndirWeight;
+        writer.putAscii("# Nodes: ");
+        writer.putLong(graph.size());
+        writer.putAscii(" Edges: ");
+        writer.putLong(graph.edgeCount());
+        writer.buffer.put((byte) '\n');
+        try {
+            graph.forEachEdge((source, target, weight) -> {
+                try {
+                    writer.putEdge(source, target, weighted, weight);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void putEdge(int source, int target, boolean weighted, double weight) throws IOException {
+        // the longest line: two ints, a double from Double.toString (at most 24 chars), blanks and newline
+        if (buffer.remaining() < 64)
+            this.flush();
+        this.putLong(source);
+        buffer.put((byte) ' ');
+        this.putLong(target);
+        if (weighted) {
+            buffer.put((byte) ' ');
+            if (weight == (long) weight && Math.abs(weight) < MAX_INTEGRAL
+                    && Double.doubleToRawLongBits(weight) != NEGATIVE_ZERO)
+                this.putLong((long) weight);
+            else
+                this.putAscii(Double.toString(weight));
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes the digits of the value, least significant first in the scratch array, then reversed into the buffer.
+     */
+    private void putLong(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (length > 0)
+            buffer.put(digits[--length]);
+    }
+
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); ++i)
+            buffer.put((byte) text.charAt(i));
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
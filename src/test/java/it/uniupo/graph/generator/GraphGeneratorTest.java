@@ -0,0 +1,106 @@
+package it.uniupo.graph.generator;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+import it.uniupo.graph.impl.IncidMatrixUndirWeight;
+import it.uniupo.graph.impl.StorageMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import upo.graph.base.Edge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class GraphGeneratorTest {
+
+    private static List<double[]> edgesOf(IncidMatrixUndir graph) {
+        List<double[]> edges = new ArrayList<>();
+        graph.forEachEdge((source, target, weight) -> edges.add(new double[]{source, target, weight}));
+        return edges;
+    }
+
+    @Test
+    @DisplayName("Same seed same graph test")
+    void reproducible() {
+        GraphGenerator generator = GraphGenerator.seeded(42).weights(WeightDistribution.exponential(3.0));
+        IncidMatrixUndirWeight first = generator.rmat(10, 5000).storage(StorageMode.SPARSE).buildWeighted();
+        IncidMatrixUndirWeight second = generator.rmat(10, 5000).storage(StorageMode.SPARSE).buildWeighted();
+        Assertions.assertEquals(first, second);
+        List<double[]> firstEdges = edgesOf(first);
+        List<double[]> secondEdges = edgesOf(second);
+        for (int i = 0; i < firstEdges.size(); ++i)
+            Assertions.assertArrayEquals(firstEdges.get(i), secondEdges.get(i));
+
+        IncidMatrixUndir other = GraphGenerator.seeded(43).rmat(10, 5000).storage(StorageMode.SPARSE).build();
+        Assertions.assertNotEquals(first, other);
+        IncidMatrixUndir unitWeights = GraphGenerator.seeded(42).rmat(10, 5000).storage(StorageMode.SPARSE).build();
+        Assertions.assertEquals(first, unitWeights);
+    }
+
+    @Test
+    @DisplayName("Erdos-Renyi has the edges asked test")
+    void erdosRenyi() {
+        IncidMatrixUndirWeight graph = GraphGenerator.seeded(1)
+                .weights(WeightDistribution.uniformInt(1, 10))
+                .erdosRenyi(1000, 20000).storage(StorageMode.SPARSE).buildWeighted();
+        Assertions.assertEquals(1000, graph.size());
+        Assertions.assertEquals(20000, graph.edgeCount());
+        graph.forEachEdge((source, target, weight) -> {
+            Assertions.assertNotEquals(source, target);
+            Assertions.assertTrue(weight >= 1 && weight <= 10 && weight == Math.rint(weight));
+        });
+        IncidMatrixUndir complete = GraphGenerator.seeded(1).erdosRenyi(30, 435).build();
+        Assertions.assertEquals(435, complete.edgeCount());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.seeded(1).erdosRenyi(30, 436));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.seeded(1).erdosRenyi(-1, 0));
+    }
+
+    @Test
+    @DisplayName("Barabasi-Albert test")
+    void barabasiAlbert() {
+        IncidMatrixUndir graph = GraphGenerator.seeded(7).barabasiAlbert(5000, 3).storage(StorageMode.SPARSE).build();
+        Assertions.assertEquals(5000, graph.size());
+        Assertions.assertEquals(3 + 4996 * 3, graph.edgeCount());
+        Assertions.assertEquals(1, graph.connectedComponents().size());
+        int maxDegree = 0;
+        for (int i = 0; i < graph.size(); ++i) {
+            int degree = graph.getAdjacent(i).size();
+            Assertions.assertTrue(degree >= 3 || i > 0 && i <= 3);
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        // preferential attachment makes hubs far above the mean degree of 6
+        Assertions.assertTrue(maxDegree > 60, "max degree " + maxDegree);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.seeded(7).barabasiAlbert(3, 3));
+    }
+
+    @Test
+    @DisplayName("Grid, path and star test")
+    void regular() {
+        IncidMatrixUndirWeight grid = GraphGenerator.seeded(3)
+                .weights(WeightDistribution.uniform(0.5, 2.0))
+                .grid(20, 30).storage(StorageMode.SPARSE).buildWeighted();
+        Assertions.assertEquals(600, grid.size());
+        Assertions.assertEquals(20 * 29 + 19 * 30, grid.edgeCount());
+        Assertions.assertTrue(grid.containsEdge(Edge.getEdgeByVertexes(31, 61)));
+        Assertions.assertFalse(grid.containsEdge(Edge.getEdgeByVertexes(29, 30)));
+        grid.forEachEdge((source, target, weight) -> Assertions.assertTrue(weight >= 0.5 && weight < 2.0));
+
+        IncidMatrixUndir path = GraphGenerator.seeded(3).path(100000).storage(StorageMode.SPARSE).build();
+        Assertions.assertEquals(99999, path.edgeCount());
+        Assertions.assertFalse(path.isCyclic());
+        IncidMatrixUndir star = GraphGenerator.seeded(3).star(1000).storage(StorageMode.SPARSE).build();
+        Assertions.assertEquals(999, star.getAdjacent(0).size());
+        Assertions.assertEquals(0, GraphGenerator.seeded(3).path(0).build().size());
+    }
+
+    @Test
+    @DisplayName("R-MAT test")
+    void rmat() {
+        IncidMatrixUndir graph = GraphGenerator.seeded(5).rmat(12, 40000).storage(StorageMode.SPARSE).build();
+        Assertions.assertEquals(4096, graph.size());
+        Assertions.assertTrue(graph.edgeCount() <= 40000 && graph.edgeCount() > 30000);
+        graph.forEachEdge((source, target, weight) -> Assertions.assertNotEquals(source, target));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.seeded(5).rmat(4, 10, 0.5, 0.3, 0.3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GraphGenerator.seeded(5).rmat(4, 10, 1.0, 0.0, 0.0));
+    }
+}
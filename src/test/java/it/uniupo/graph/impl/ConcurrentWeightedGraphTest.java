@@ -0,0 +1,112 @@
+package it.uniupo.graph.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import upo.graph.base.Edge;
+import upo.graph.base.WeightedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConcurrentWeightedGraphTest {
+
+    @Test
+    @DisplayName("Changes publish new snapshots test")
+    void snapshots() {
+        ConcurrentWeightedGraph graph = new ConcurrentWeightedGraph();
+        for (int i = 0; i < 4; ++i)
+            Assertions.assertEquals(i, graph.addVertex());
+        graph.addEdge(0, 1, 2.0);
+        graph.addEdge(1, 2, 3.0);
+        IncidMatrixUndirWeight before = graph.snapshot();
+        graph.update(g -> {
+            g.addEdge(Edge.getEdgeByVertexes(2, 3));
+            g.setEdgeWeight(Edge.getEdgeByVertexes(2, 3), 4.0);
+            g.removeEdge(Edge.getEdgeByVertexes(0, 1));
+        });
+        graph.setEdgeWeight(2, 1, 5.0);
+        Assertions.assertEquals(Set.of(1, 3), graph.getAdjacent(2));
+        Assertions.assertEquals(5.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+        Assertions.assertEquals(Set.of(1), before.getAdjacent(0));
+        Assertions.assertEquals(3.0, before.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+
+        Assertions.assertThrows(UnsupportedOperationException.class, before::addVertex);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> graph.snapshot().setEdgeWeight(Edge.getEdgeByVertexes(1, 2), 1.0));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> graph.snapshot().removeEdge(Edge.getEdgeByVertexes(1, 2)));
+        Assertions.assertEquals(5.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+
+        // a failed change publishes nothing
+        IncidMatrixUndirWeight current = graph.snapshot();
+        Assertions.assertThrows(NoSuchElementException.class, () -> graph.update(g -> {
+            g.addVertex();
+            g.removeEdge(Edge.getEdgeByVertexes(0, 3));
+        }));
+        Assertions.assertThrows(NoSuchElementException.class, () -> graph.setEdgeWeight(0, 3, 1.0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> graph.addEdge(0, 9, 1.0));
+        Assertions.assertSame(current, graph.snapshot());
+        Assertions.assertEquals(4, graph.size());
+
+        IncidMatrixUndirWeight source = IncidMatrixUndir.builder().vertices(3).storage(StorageMode.OFF_HEAP)
+                .edge(0, 1, 1.0).edge(1, 2, 2.0).buildWeighted();
+        ConcurrentWeightedGraph copied = new ConcurrentWeightedGraph(source);
+        source.close();
+        Assertions.assertEquals(StorageMode.SPARSE, copied.snapshot().getStorageMode());
+        Assertions.assertEquals(2.0, copied.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Readers never see a half-done change test")
+    void readersAndWriter() throws Exception {
+        int vertices = 200;
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(vertices).storage(StorageMode.SPARSE);
+        for (int i = 1; i < vertices; ++i)
+            builder.edge(i - 1, i, 1.0);
+        ConcurrentWeightedGraph graph = new ConcurrentWeightedGraph(builder.buildWeighted());
+        // the edges are created up front, Edge.getEdgeByVertexes is not thread-safe
+        Edge first = Edge.getEdgeByVertexes(0, 1);
+        Edge second = Edge.getEdgeByVertexes(1, 2);
+        Edge last = Edge.getEdgeByVertexes(vertices - 2, vertices - 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            readers.add(pool.submit(() -> {
+                int reads = 0;
+                while (writing.get() || reads == 0) {
+                    // every update keeps the weights of the first two edges adding up to 2
+                    WeightedGraph paths = graph.getDijkstraShortestPaths(0);
+                    Assertions.assertEquals(vertices - 1.0, paths.getEdgeWeight(last));
+                    Assertions.assertEquals(vertices - 1.0, graph.getBFSTree(0).getDistance(vertices - 1));
+                    // edges are created while the writer and the other readers run
+                    IncidMatrixUndirWeight snapshot = graph.snapshot();
+                    Assertions.assertEquals(snapshot.edgeCount(), snapshot.getEdges().size());
+                    Assertions.assertEquals(snapshot.hashCode(), snapshot.hashCode());
+                    ++reads;
+                }
+                return reads;
+            }));
+        }
+        for (int k = 0; k <= 200; ++k) {
+            double weight = k / 100.0;
+            graph.update(g -> {
+                g.setEdgeWeight(first, weight);
+                g.setEdgeWeight(second, 2.0 - weight);
+            });
+            // new vertexes hang from 0 and shorten no path
+            graph.addEdge(graph.addVertex(), 0, 1000.0);
+        }
+        writing.set(false);
+        for (Future<Integer> reader : readers)
+            Assertions.assertTrue(reader.get() > 0);
+        pool.shutdown();
+        Assertions.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,67 @@
+package it.uniupo.graph.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class EdgeIndexTest {
+
+    @Test
+    @DisplayName("Both orientations share the key test")
+    void orientation() {
+        EdgeIndex index = new EdgeIndex();
+        index.put(3, 7, 0);
+        Assertions.assertEquals(0, index.get(7, 3));
+        Assertions.assertEquals(0, index.get(3, 7));
+        Assertions.assertEquals(-1, index.get(3, 8));
+        index.put(7, 3, 5);
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertEquals(5, index.get(3, 7));
+        index.remove(3, 7);
+        Assertions.assertEquals(-1, index.get(7, 3));
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("putIfAbsent keeps the first column test")
+    void putIfAbsent() {
+        EdgeIndex index = new EdgeIndex();
+        Assertions.assertTrue(index.putIfAbsent(3, 7, 0));
+        Assertions.assertFalse(index.putIfAbsent(7, 3, 1));
+        Assertions.assertEquals(0, index.get(3, 7));
+        for (int i = 1; i < 1000; ++i)
+            Assertions.assertTrue(index.putIfAbsent(i, i + 1, i));
+        Assertions.assertEquals(1000, index.size());
+        Assertions.assertEquals(500, index.get(501, 500));
+    }
+
+    @Test
+    @DisplayName("Random operations against a HashMap test")
+    void randomOperations() {
+        EdgeIndex index = new EdgeIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; ++i) {
+            int u = random.nextInt(200);
+            int v = random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                index.remove(u, v);
+                expected.remove(EdgeIndex.key(u, v));
+            } else {
+                index.put(u, v, i);
+                expected.put(EdgeIndex.key(u, v), i);
+            }
+        }
+        Assertions.assertEquals(expected.size(), index.size());
+        for (int u = 0; u < 200; ++u)
+            for (int v = 0; v < 200; ++v)
+                Assertions.assertEquals(expected.getOrDefault(EdgeIndex.key(u, v), -1), index.get(u, v));
+        index.clear();
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertEquals(-1, index.get(0, 0));
+    }
+}
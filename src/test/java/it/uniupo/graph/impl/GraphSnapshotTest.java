@@ -0,0 +1,95 @@
+package it.uniupo.graph.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import upo.graph.base.Edge;
+import upo.graph.base.WeightedGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+class GraphSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private static IncidMatrixUndirWeight randomGraph(StorageMode mode) {
+        Random random = new Random(11);
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(80).storage(mode);
+        for (int i = 0; i < 300; ++i)
+            builder.edge(random.nextInt(80), random.nextInt(80), random.nextInt(50));
+        return builder.buildWeighted();
+    }
+
+    @Test
+    @DisplayName("Write and map a snapshot test")
+    void roundTrip() throws IOException {
+        for (StorageMode mode : StorageMode.values()) {
+            if (mode == StorageMode.BIT_PACKED || mode == StorageMode.MAPPED)
+                continue; // no weights, see the bit-packed storage test; mapped graphs come from a snapshot
+            IncidMatrixUndirWeight graph = randomGraph(mode);
+            Path path = directory.resolve(mode + ".graph");
+            GraphSnapshot.write(graph, path);
+            try (GraphSnapshot snapshot = GraphSnapshot.open(path)) {
+                IncidMatrixUndirWeight mapped = snapshot.weightedGraph();
+                Assertions.assertEquals(StorageMode.MAPPED, mapped.getStorageMode());
+                Assertions.assertEquals(StorageMode.MAPPED, snapshot.graph().getStorageMode());
+                Assertions.assertEquals(graph.size(), mapped.size());
+                Assertions.assertEquals(graph, mapped);
+                for (Edge edge : graph.getEdges())
+                    Assertions.assertEquals(graph.getEdgeWeight(edge), mapped.getEdgeWeight(edge));
+                for (int i = 0; i < graph.size(); ++i) {
+                    Assertions.assertEquals(graph.getAdjacent(i), mapped.getAdjacent(i));
+                    for (int j = 0; j < graph.size(); ++j)
+                        Assertions.assertEquals(graph.isAdjacent(i, j), mapped.isAdjacent(i, j));
+                }
+                Assertions.assertEquals(graph.connectedComponents(), mapped.connectedComponents());
+                WeightedGraph paths = mapped.getDijkstraShortestPaths(0);
+                Assertions.assertEquals(graph.getDijkstraShortestPaths(0), paths);
+                Assertions.assertEquals(graph.getDFSTree(0).getEndTime(0), mapped.getDFSTree(0).getEndTime(0));
+                Assertions.assertEquals(graph.getBFSTree(0).getDistance(79), mapped.getBFSTree(0).getDistance(79));
+                Assertions.assertEquals(graph, snapshot.graph());
+                // the results are ordinary graphs, stored sparsely
+                WeightedGraph mst = mapped.getKruskalMST();
+                Assertions.assertDoesNotThrow(mst::addVertex);
+                Assertions.assertEquals(StorageMode.SPARSE, ((IncidMatrixUndirWeight) mst).getStorageMode());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A mapped graph is read-only test")
+    void readOnly() throws IOException {
+        IncidMatrixUndirWeight graph = randomGraph(StorageMode.SPARSE);
+        Path path = directory.resolve("read-only.graph");
+        GraphSnapshot.write(graph, path);
+        IncidMatrixUndirWeight mapped;
+        try (GraphSnapshot snapshot = GraphSnapshot.open(path)) {
+            mapped = snapshot.weightedGraph();
+            Edge edge = mapped.getEdges().iterator().next();
+            Assertions.assertThrows(UnsupportedOperationException.class, mapped::addVertex);
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.removeVertex(0));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.removeEdge(edge));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> mapped.setEdgeWeight(edge, 1.0));
+            Assertions.assertThrows(UnsupportedOperationException.class,
+                    () -> mapped.addEdge(Edge.getEdgeByVertexes(0, 79)));
+            Assertions.assertEquals(graph, mapped);
+        }
+        Assertions.assertThrows(IllegalStateException.class, () -> mapped.getEdgeWeight(Edge.getEdgeByVertexes(0, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IncidMatrixUndir.builder().storage(StorageMode.MAPPED));
+    }
+
+    @Test
+    @DisplayName("Not a snapshot test")
+    void notASnapshot() throws IOException {
+        Path path = directory.resolve("text.graph");
+        Files.writeString(path, "0 1\n1 2\n2 0\n3 4\n");
+        Assertions.assertThrows(IOException.class, () -> GraphSnapshot.open(path));
+        Files.write(path, new byte[0]);
+        Assertions.assertThrows(IOException.class, () -> GraphSnapshot.open(path));
+    }
+}
@@ -8,8 +8,13 @@ import org.junit.jupiter.api.Test;
 import upo.graph.base.Edge;
 import upo.graph.base.VisitResult;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 class IncidMatrixUndirTest {
@@ -122,6 +127,24 @@ class IncidMatrixUndirTest {
         Assertions.assertEquals(2, matrixUndir.size());
     }
 
+    @Test
+    @DisplayName("removeVertex keeps the remaining adjacencies test")
+    void removeVertexAdjacencies() {
+        for (int i = 0; i < 5; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(1, 2));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(3, 4));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(1, 4));
+        matrixUndir.removeVertex(1);
+        Assertions.assertEquals(4, matrixUndir.size());
+        Assertions.assertEquals(1, matrixUndir.getEdges().size());
+        Assertions.assertEquals(Set.of(3), matrixUndir.getAdjacent(2));
+        Assertions.assertEquals(Set.of(2), matrixUndir.getAdjacent(3));
+        Assertions.assertEquals(0, matrixUndir.getAdjacent(0).size());
+        Assertions.assertEquals(0, matrixUndir.getAdjacent(1).size());
+    }
+
     @Test
     @DisplayName("addEdge test")
     void addEdge() {
@@ -196,6 +219,83 @@ class IncidMatrixUndirTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> matrixUndir.isAdjacent(5, 3));
     }
 
+    @Test
+    @DisplayName("sparse storage test")
+    void sparseStorage() {
+        IncidMatrixUndir sparse = new IncidMatrixUndir(StorageMode.SPARSE);
+        Assertions.assertEquals(StorageMode.SPARSE, sparse.getStorageMode());
+        Assertions.assertEquals(StorageMode.DENSE, matrixUndir.getStorageMode());
+        for (int i = 0; i < 6; ++i) {
+            sparse.addVertex();
+            matrixUndir.addVertex();
+        }
+        for (int i = 0; i < 5; ++i) {
+            sparse.addEdge(Edge.getEdgeByVertexes(i, i + 1));
+            matrixUndir.addEdge(Edge.getEdgeByVertexes(i, i + 1));
+        }
+        sparse.addEdge(Edge.getEdgeByVertexes(5, 0));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(5, 0));
+        Assertions.assertEquals(matrixUndir, sparse);
+        Assertions.assertEquals(Set.of(1, 5), sparse.getAdjacent(0));
+        Assertions.assertTrue(sparse.isAdjacent(0, 5));
+        Assertions.assertFalse(sparse.isAdjacent(0, 3));
+        Assertions.assertFalse(sparse.isAdjacent(2, 2));
+        Assertions.assertTrue(sparse.isCyclic());
+        sparse.removeEdge(Edge.getEdgeByVertexes(1, 2));
+        matrixUndir.removeEdge(Edge.getEdgeByVertexes(2, 1));
+        sparse.removeVertex(4);
+        matrixUndir.removeVertex(4);
+        Assertions.assertEquals(matrixUndir, sparse);
+        Assertions.assertEquals(matrixUndir.connectedComponents(), sparse.connectedComponents());
+        Assertions.assertEquals(Set.of(2), sparse.getAdjacent(3));
+        Assertions.assertEquals(Set.of(1, 4), sparse.getAdjacent(0));
+    }
+
+    @Test
+    @DisplayName("bit-packed storage test")
+    void bitPackedStorage() {
+        IncidMatrixUndir bitPacked = new IncidMatrixUndir(StorageMode.BIT_PACKED);
+        IncidMatrixUndir sparse = new IncidMatrixUndir(StorageMode.SPARSE);
+        Random random = new Random(11);
+        // more than 64 vertexes, so the rows grow past their first word
+        for (int i = 0; i < 150; ++i) {
+            bitPacked.addVertex();
+            sparse.addVertex();
+        }
+        for (int i = 0; i < 1500; ++i) {
+            Edge edge = Edge.getEdgeByVertexes(random.nextInt(150), random.nextInt(150));
+            bitPacked.addEdge(edge);
+            sparse.addEdge(edge);
+            if (i % 7 == 0) {
+                bitPacked.removeEdge(edge);
+                sparse.removeEdge(edge);
+            }
+        }
+        bitPacked.removeVertices(List.of(0, 64, 149, 100));
+        sparse.removeVertices(List.of(0, 64, 149, 100));
+        bitPacked.addEdge(Edge.getEdgeByVertexes(3, 3));
+        sparse.addEdge(Edge.getEdgeByVertexes(3, 3));
+        Assertions.assertEquals(sparse, bitPacked);
+        for (int i = 0; i < sparse.size(); ++i) {
+            Assertions.assertEquals(sparse.getAdjacent(i), bitPacked.getAdjacent(i));
+            for (int j = 0; j < sparse.size(); ++j) {
+                Assertions.assertEquals(sparse.isAdjacent(i, j), bitPacked.isAdjacent(i, j));
+                Assertions.assertEquals(sparse.containsEdge(Edge.getEdgeByVertexes(i, j)),
+                        bitPacked.containsEdge(Edge.getEdgeByVertexes(i, j)));
+            }
+        }
+        Assertions.assertEquals(sparse.connectedComponents(), bitPacked.connectedComponents());
+        Assertions.assertEquals(sparse.getBFSTree(5).getDistance(40), bitPacked.getBFSTree(5).getDistance(40));
+        Assertions.assertEquals(sparse.getDFSTree(5).getEndTime(5), bitPacked.getDFSTree(5).getEndTime(5));
+
+        IncidMatrixUndir built = IncidMatrixUndir.builder().vertices(70).storage(StorageMode.BIT_PACKED)
+                .edge(0, 69).edge(69, 0).edge(68, 1).build();
+        Assertions.assertEquals(2, built.edgeCount());
+        Assertions.assertEquals(Set.of(69), built.getAdjacent(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> IncidMatrixUndir.builder().storage(StorageMode.BIT_PACKED).buildWeighted());
+    }
+
     @Test
     @DisplayName("size test")
     void size() {
@@ -253,6 +353,42 @@ class IncidMatrixUndirTest {
         Assertions.assertTrue(matrixUndir.isCyclic());
     }
 
+    @Test
+    @DisplayName("findCycle test")
+    void findCycle() {
+        for (int i = 0; i < 6; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(1, 2));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(3, 4));
+        Assertions.assertTrue(matrixUndir.findCycle().isEmpty());
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(4, 5));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(5, 3));
+        Assertions.assertEquals(List.of(5, 4, 3, 5), matrixUndir.findCycle());
+        matrixUndir = new IncidMatrixUndir();
+        matrixUndir.addVertex();
+        matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(1, 1));
+        Assertions.assertTrue(matrixUndir.isCyclic());
+        Assertions.assertEquals(List.of(1, 1), matrixUndir.findCycle());
+
+        IncidMatrixUndir path = new IncidMatrixUndir(StorageMode.SPARSE);
+        int size = 100_000;
+        for (int i = 0; i < size; ++i)
+            path.addVertex();
+        for (int i = 1; i < size; ++i)
+            path.addColumn(i - 1, i, 0.0);
+        Assertions.assertFalse(path.isCyclic());
+        Assertions.assertTrue(path.findCycle().isEmpty());
+        path.addColumn(size - 1, 0, 0.0);
+        Assertions.assertTrue(path.isCyclic());
+        List<Integer> cycle = path.findCycle();
+        Assertions.assertEquals(size + 1, cycle.size());
+        Assertions.assertEquals(cycle.get(0), cycle.get(size));
+        for (int i = 1; i < cycle.size(); ++i)
+            Assertions.assertTrue(path.isAdjacent(cycle.get(i - 1), cycle.get(i)));
+    }
+
     @Test
     @DisplayName("isDag test")
     void isDAG() {
@@ -288,6 +424,36 @@ class IncidMatrixUndirTest {
         Assertions.assertEquals(VisitResult.Color.WHITE, visitResult.getColor(3));
     }
 
+    @Test
+    @DisplayName("getBFSTree distances and parents test")
+    void getBFSTreeDistances() {
+        for (int i = 0; i < 6; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 3));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(3, 2));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(1, 2));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(2, 4));
+        VisitResult visitResult = matrixUndir.getBFSTree(0);
+        Assertions.assertEquals(0.0, visitResult.getDistance(0));
+        Assertions.assertNull(visitResult.getPartent(0));
+        Assertions.assertEquals(1.0, visitResult.getDistance(3));
+        Assertions.assertEquals(2.0, visitResult.getDistance(2));
+        Assertions.assertEquals(1, visitResult.getPartent(2));
+        Assertions.assertEquals(3.0, visitResult.getDistance(4));
+        Assertions.assertEquals(VisitResult.Color.WHITE, visitResult.getColor(5));
+
+        IncidMatrixUndir path = new IncidMatrixUndir(StorageMode.SPARSE);
+        int size = 100_000;
+        for (int i = 0; i < size; ++i)
+            path.addVertex();
+        for (int i = 1; i < size; ++i)
+            path.addColumn(i - 1, i, 0.0);
+        visitResult = path.getBFSTree(size / 2);
+        Assertions.assertEquals(size / 2, visitResult.getDistance(0));
+        Assertions.assertEquals(size - 2, visitResult.getPartent(size - 1));
+    }
+
     @Test
     @DisplayName("getDFSTreeRic test")
     void getDFSTreeRicTest() {
@@ -314,6 +480,43 @@ class IncidMatrixUndirTest {
         Assertions.assertEquals("Vertex does not belong to the Graph", e.getMessage());
     }
 
+    @Test
+    @DisplayName("DFS on a deep path test")
+    void deepDFS() {
+        IncidMatrixUndir path = new IncidMatrixUndir(StorageMode.SPARSE);
+        int size = 100_000;
+        for (int i = 0; i < size; ++i)
+            path.addVertex();
+        for (int i = 1; i < size; ++i)
+            path.addColumn(i - 1, i, 0.0);
+        VisitResult visit = path.getDFSTreeRic(0);
+        Assertions.assertEquals(size, visit.getStartTime(size - 1));
+        Assertions.assertEquals(size + 1, visit.getEndTime(size - 1));
+        Assertions.assertEquals(2 * size, visit.getEndTime(0));
+        Assertions.assertEquals(size - 2, visit.getPartent(size - 1));
+        Assertions.assertFalse(path.isCyclic());
+        path.addColumn(size - 1, 0, 0.0);
+        Assertions.assertTrue(path.isCyclic());
+    }
+
+    @Test
+    @DisplayName("visitDFSRic continues a visit test")
+    void visitDFSRicTest() {
+        for (int i = 0; i < 4; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(2, 3));
+        VisitResult visit = matrixUndir.getDFSTree(0);
+        AtomicInteger time = new AtomicInteger(4);
+        matrixUndir.visitDFSRic(visit, 3, time);
+        Assertions.assertEquals(8, time.get());
+        Assertions.assertEquals(5, visit.getStartTime(3));
+        Assertions.assertEquals(6, visit.getStartTime(2));
+        Assertions.assertEquals(3, visit.getPartent(2));
+        Assertions.assertEquals(1, visit.getStartTime(0));
+        Assertions.assertEquals(VisitResult.Color.BLACK, visit.getColor(2));
+    }
+
     @Test
     @DisplayName("belongsToEdge test")
     void belongsToEdgeTest() {
@@ -402,6 +605,36 @@ class IncidMatrixUndirTest {
         Assertions.assertEquals(VisitResult.Color.BLACK, forestVisit.getColor(4));
     }
 
+    @Test
+    @DisplayName("getDFSTOTForest times test")
+    void getDFSTOTForestTimes() {
+        for (int i = 0; i < 7; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(0, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(2, 3));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(3, 4));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(6, 5));
+        VisitResult forestVisit = matrixUndir.getDFSTOTForest(3);
+        Assertions.assertEquals(1, forestVisit.getStartTime(3));
+        Assertions.assertEquals(6, forestVisit.getEndTime(3));
+        Assertions.assertEquals(7, forestVisit.getStartTime(0));
+        Assertions.assertEquals(11, forestVisit.getStartTime(5));
+        Assertions.assertEquals(14, forestVisit.getEndTime(5));
+        Assertions.assertNull(forestVisit.getPartent(5));
+        Assertions.assertEquals(5, forestVisit.getPartent(6));
+        Set<Integer> times = new HashSet<>();
+        for (int i = 0; i < 7; ++i) {
+            times.add(forestVisit.getStartTime(i));
+            times.add(forestVisit.getEndTime(i));
+        }
+        Assertions.assertEquals(14, times.size());
+
+        forestVisit = matrixUndir.getDFSTOTForest(new Integer[]{4, 6});
+        Assertions.assertEquals(1, forestVisit.getStartTime(4));
+        Assertions.assertEquals(7, forestVisit.getStartTime(6));
+        Assertions.assertEquals(VisitResult.Color.WHITE, forestVisit.getColor(0));
+    }
+
     @Test
     @DisplayName("topologicalSort test")
     void topologicalSort() {
@@ -434,4 +667,41 @@ class IncidMatrixUndirTest {
         Assertions.assertTrue(cc.contains(Set.of(3, 4, 5)));
         Assertions.assertEquals(2, cc.size());
     }
+
+    @Test
+    @DisplayName("connectedComponentIds test")
+    void connectedComponentIds() {
+        Assertions.assertEquals(0, matrixUndir.connectedComponentIds().length);
+        for (int i = 0; i < 7; ++i)
+            matrixUndir.addVertex();
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(5, 1));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(3, 2));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(6, 3));
+        matrixUndir.addEdge(Edge.getEdgeByVertexes(4, 4));
+        Assertions.assertArrayEquals(new int[]{0, 1, 2, 2, 3, 1, 2}, matrixUndir.connectedComponentIds());
+        Assertions.assertEquals(Set.of(Set.of(0), Set.of(1, 5), Set.of(2, 3, 6), Set.of(4)), matrixUndir.connectedComponents());
+        matrixUndir.removeVertex(0);
+        Assertions.assertArrayEquals(new int[]{0, 1, 1, 2, 0, 1}, matrixUndir.connectedComponentIds());
+    }
+
+    @Test
+    @DisplayName("parallel connectedComponentIds test")
+    void parallelConnectedComponentIds() {
+        IncidMatrixUndir graph = new IncidMatrixUndir(StorageMode.SPARSE);
+        int size = 100_000;
+        for (int i = 0; i < size; ++i)
+            graph.addVertex();
+        Random random = new Random(11);
+        for (int i = 0; i < size * 3 / 5; ++i)
+            graph.addColumn(random.nextInt(size), random.nextInt(size), 0.0);
+        int[] expected = graph.connectedComponentIds();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 3; ++i)
+                Assertions.assertArrayEquals(expected, graph.connectedComponentIds(pool));
+            Assertions.assertEquals(graph.connectedComponents(), graph.connectedComponents(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
\ No newline at end of file
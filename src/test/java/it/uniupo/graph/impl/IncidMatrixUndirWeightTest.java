@@ -7,7 +7,11 @@ import org.junit.jupiter.api.Test;
 import upo.graph.base.Edge;
 import upo.graph.base.WeightedGraph;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 class IncidMatrixUndirWeightTest {
@@ -25,6 +29,39 @@ class IncidMatrixUndirWeightTest {
         Assertions.assertEquals(0, weightedGraph.size());
     }
 
+    @Test
+    @DisplayName("Builder test")
+    void builderTest() {
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder()
+                .vertices(4)
+                .storage(StorageMode.SPARSE)
+                .edges(new int[]{0, 1, 1, 2}, new int[]{1, 2, 0, 2}, new double[]{1.5, 2.0, 9.0, 3.0})
+                .edge(3, 2, 4.0)
+                .edge(2, 1, 8.0);
+        IncidMatrixUndirWeight graph = builder.buildWeighted();
+        Assertions.assertEquals(StorageMode.SPARSE, graph.getStorageMode());
+        Assertions.assertEquals(4, graph.size());
+        Assertions.assertEquals(4, graph.getEdges().size());
+        Assertions.assertEquals(1.5, graph.getEdgeWeight(Edge.getEdgeByVertexes(1, 0)));
+        Assertions.assertEquals(2.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+        Assertions.assertEquals(3.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(2, 2)));
+        Assertions.assertEquals(Set.of(1, 2, 3), graph.getAdjacent(2));
+        graph.addEdge(Edge.getEdgeByVertexes(0, 3));
+        Assertions.assertTrue(graph.isAdjacent(3, 0));
+
+        IncidMatrixUndir unweighted = builder.build();
+        Assertions.assertFalse(unweighted instanceof IncidMatrixUndirWeight);
+        Assertions.assertEquals(StorageMode.SPARSE, unweighted.getStorageMode());
+        Assertions.assertEquals(4, unweighted.getEdges().size());
+        Assertions.assertFalse(unweighted.isAdjacent(3, 0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IncidMatrixUndir.builder().vertices(2).edge(0, 2).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IncidMatrixUndir.builder().vertices(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> IncidMatrixUndir.builder().edges(new int[]{0}, new int[]{0, 1}));
+        Assertions.assertEquals(0, IncidMatrixUndir.builder().build().size());
+    }
+
     @Test
     @DisplayName("Get edge weight test")
     void getEdgeWeight() {
@@ -105,6 +142,27 @@ class IncidMatrixUndirWeightTest {
         Assertions.assertEquals(50, weightedGraph.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
     }
 
+    @Test
+    @DisplayName("weighted graph - remove a middle edge test")
+    void removeMiddleEdge() {
+        weightedGraph.addVertex();
+        weightedGraph.addVertex();
+        weightedGraph.addVertex();
+        weightedGraph.addVertex();
+        weightedGraph.addEdge(Edge.getEdgeByVertexes(0, 1));
+        weightedGraph.addEdge(Edge.getEdgeByVertexes(1, 2));
+        weightedGraph.addEdge(Edge.getEdgeByVertexes(2, 3));
+        weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(0, 1), 1);
+        weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(1, 2), 2);
+        weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(2, 3), 3);
+        weightedGraph.removeEdge(Edge.getEdgeByVertexes(2, 1));
+        Assertions.assertFalse(weightedGraph.containsEdge(Edge.getEdgeByVertexes(1, 2)));
+        Assertions.assertEquals(1, weightedGraph.getEdgeWeight(Edge.getEdgeByVertexes(0, 1)));
+        Assertions.assertEquals(3, weightedGraph.getEdgeWeight(Edge.getEdgeByVertexes(3, 2)));
+        Assertions.assertEquals(Set.of(3), weightedGraph.getAdjacent(2));
+        Assertions.assertEquals(Set.of(0), weightedGraph.getAdjacent(1));
+    }
+
     @Test
     void addEdge() {
         weightedGraph.addVertex();
@@ -127,9 +185,30 @@ class IncidMatrixUndirWeightTest {
     }
 
     @Test
+    @DisplayName("Bellman-Ford shortest paths test")
     void getBellmanFordShortestPaths() {
-        Exception e = Assertions.assertThrows(UnsupportedOperationException.class, () -> weightedGraph.getBellmanFordShortestPaths(0));
-        Assertions.assertEquals(IncidMatrixUndirWeight.UNSUPPORTED_IMPLEMENTATION, e.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> weightedGraph.getBellmanFordShortestPaths(0));
+        for (int i = 0; i < 6; ++i)
+            weightedGraph.addVertex();
+        int[][] edges = {{1, 2, 30}, {1, 3, 20}, {3, 2, 2}, {1, 4, 52}, {3, 4, 0}, {0, 5, -1}};
+        for (int[] edge : edges) {
+            weightedGraph.addEdge(Edge.getEdgeByVertexes(edge[0], edge[1]));
+            weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(edge[0], edge[1]), edge[2]);
+        }
+        IncidMatrixUndirWeight graph = (IncidMatrixUndirWeight) weightedGraph;
+        for (boolean queueBased : new boolean[]{false, true}) {
+            WeightedGraph result = graph.getBellmanFordShortestPaths(1, queueBased);
+            Assertions.assertEquals(6, result.size());
+            Assertions.assertEquals(3, result.getEdges().size());
+            Assertions.assertEquals(20.0, result.getEdgeWeight(Edge.getEdgeByVertexes(1, 3)));
+            Assertions.assertEquals(22.0, result.getEdgeWeight(Edge.getEdgeByVertexes(3, 2)));
+            Assertions.assertEquals(20.0, result.getEdgeWeight(Edge.getEdgeByVertexes(3, 4)));
+
+            NegativeCycleException e = Assertions.assertThrows(NegativeCycleException.class,
+                    () -> graph.getBellmanFordShortestPaths(5, queueBased));
+            Assertions.assertEquals(List.of(5, 0, 5), e.getCycle());
+        }
+        Assertions.assertEquals(graph.getDijkstraShortestPaths(1), graph.getBellmanFordShortestPaths(1));
     }
 
     @Test
@@ -215,21 +294,195 @@ class IncidMatrixUndirWeightTest {
     }
 
     @Test
+    @DisplayName("Dijkstra after the graph changes")
+    void dijkstraAfterChanges() {
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < 4; ++i)
+            graph.addVertex();
+        Edge edge_0_1 = Edge.getEdgeByVertexes(0, 1);
+        Edge edge_1_2 = Edge.getEdgeByVertexes(1, 2);
+        Edge edge_0_2 = Edge.getEdgeByVertexes(0, 2);
+        graph.addEdge(edge_0_1);
+        graph.setEdgeWeight(edge_0_1, 1.0);
+        graph.addEdge(edge_1_2);
+        graph.setEdgeWeight(edge_1_2, 1.0);
+        graph.addEdge(edge_0_2);
+        graph.setEdgeWeight(edge_0_2, 5.0);
+        Assertions.assertEquals(2.0, graph.getDijkstraShortestPaths(0).getEdgeWeight(edge_1_2));
+
+        graph.setEdgeWeight(edge_0_2, 1.5);
+        WeightedGraph result = graph.getDijkstraShortestPaths(0);
+        Assertions.assertFalse(result.containsEdge(edge_1_2));
+        Assertions.assertEquals(1.5, result.getEdgeWeight(edge_0_2));
+
+        graph.removeEdge(edge_0_2);
+        graph.addEdge(Edge.getEdgeByVertexes(2, 3));
+        result = graph.getDijkstraShortestPaths(0);
+        Assertions.assertEquals(2.0, result.getEdgeWeight(Edge.getEdgeByVertexes(2, 3)));
+        Assertions.assertEquals(4, result.size());
+
+        graph.setEdgeWeight(edge_1_2, -1.0);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> graph.getDijkstraShortestPaths(0));
+    }
+
+    @Test
+    @DisplayName("Prim minimum spanning tree test")
     void getPrimMST() {
-        Exception e = Assertions.assertThrows(UnsupportedOperationException.class, () -> weightedGraph.getPrimMST(0));
-        Assertions.assertEquals(IncidMatrixUndirWeight.UNSUPPORTED_IMPLEMENTATION, e.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> weightedGraph.getPrimMST(0));
+        for (int i = 0; i < 6; ++i)
+            weightedGraph.addVertex();
+        int[][] edges = {{1, 2, 30}, {1, 3, 20}, {3, 2, 2}, {1, 4, 52}, {3, 4, 2}, {0, 5, 7}};
+        for (int[] edge : edges) {
+            weightedGraph.addEdge(Edge.getEdgeByVertexes(edge[0], edge[1]));
+            weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(edge[0], edge[1]), edge[2]);
+        }
+        WeightedGraph mst = weightedGraph.getPrimMST(4);
+        Assertions.assertEquals(6, mst.size());
+        Assertions.assertEquals(3, mst.getEdges().size());
+        Assertions.assertEquals(20.0, mst.getEdgeWeight(Edge.getEdgeByVertexes(1, 3)));
+        Assertions.assertFalse(mst.containsEdge(Edge.getEdgeByVertexes(0, 5)));
+
+        WeightedGraph forest = ((IncidMatrixUndirWeight) weightedGraph).getPrimMST(4, true);
+        Assertions.assertEquals(4, forest.getEdges().size());
+        Assertions.assertEquals(7.0, forest.getEdgeWeight(Edge.getEdgeByVertexes(5, 0)));
+    }
+
+    @Test
+    @DisplayName("Prim spanning forest of many components")
+    void primManyComponents() {
+        // 50,000 components of one edge each: a heap allocated for each tree would take O(V^2), tens of seconds
+        int size = 100_000;
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(size).storage(StorageMode.SPARSE);
+        for (int i = 0; i < size; i += 2)
+            builder.edge(i, i + 1, i % 7);
+        IncidMatrixUndirWeight graph = builder.buildWeighted();
+        IncidMatrixUndirWeight forest = Assertions.assertTimeout(Duration.ofSeconds(3),
+                () -> (IncidMatrixUndirWeight) graph.getPrimMST(size - 1, true));
+        Assertions.assertEquals(size, forest.size());
+        Assertions.assertEquals(size / 2, forest.edgeCount());
+        Assertions.assertEquals(((IncidMatrixUndirWeight) graph.getKruskalMST()).edgeCount(), forest.edgeCount());
+        Assertions.assertTrue(forest.isAdjacent(size - 1, size - 2));
+        Assertions.assertTrue(forest.isAdjacent(0, 1));
     }
 
     @Test
+    @DisplayName("Prim on a complete graph, scanning the keys")
+    void primDenseGraph() {
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        int size = 12;
+        for (int i = 0; i < size; ++i)
+            graph.addVertex();
+        Random random = new Random(3);
+        for (int i = 0; i < size; ++i)
+            for (int j = i + 1; j < size; ++j)
+                graph.addColumn(i, j, random.nextInt(20) - 5);
+        for (int i = 0; i < size; ++i)
+            graph.addColumn(size / 2, i, -10.0);
+        IncidMatrixUndirWeight prim = (IncidMatrixUndirWeight) graph.getPrimMST(size - 1);
+        IncidMatrixUndirWeight kruskal = (IncidMatrixUndirWeight) graph.getKruskalMST();
+        double primWeight = 0;
+        double kruskalWeight = 0;
+        for (int i = 0; i < size - 1; ++i) {
+            primWeight += prim.matrix.weight(i);
+            kruskalWeight += kruskal.matrix.weight(i);
+        }
+        Assertions.assertEquals(size - 1, prim.matrix.columns());
+        Assertions.assertEquals(kruskalWeight, primWeight);
+    }
+
+    @Test
+    @DisplayName("Kruskal minimum spanning forest test")
     void getKruskalMST() {
-        Exception e = Assertions.assertThrows(UnsupportedOperationException.class, () -> weightedGraph.getKruskalMST());
-        Assertions.assertEquals(IncidMatrixUndirWeight.UNSUPPORTED_IMPLEMENTATION, e.getMessage());
+        Assertions.assertEquals(0, weightedGraph.getKruskalMST().size());
+        for (int i = 0; i < 6; ++i)
+            weightedGraph.addVertex();
+        int[][] edges = {{1, 2, 30}, {1, 3, 20}, {3, 2, 2}, {1, 4, 52}, {3, 4, 2}, {2, 4, 2}, {5, 5, 0}};
+        for (int[] edge : edges) {
+            weightedGraph.addEdge(Edge.getEdgeByVertexes(edge[0], edge[1]));
+            weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(edge[0], edge[1]), edge[2]);
+        }
+        WeightedGraph mst = weightedGraph.getKruskalMST();
+        Assertions.assertEquals(6, mst.size());
+        Assertions.assertEquals(3, mst.getEdges().size());
+        Assertions.assertEquals(2.0, mst.getEdgeWeight(Edge.getEdgeByVertexes(2, 3)));
+        Assertions.assertEquals(2.0, mst.getEdgeWeight(Edge.getEdgeByVertexes(3, 4)));
+        Assertions.assertEquals(20.0, mst.getEdgeWeight(Edge.getEdgeByVertexes(1, 3)));
+        Assertions.assertFalse(mst.isCyclic());
+        Assertions.assertEquals(3, mst.connectedComponents().size());
+        Assertions.assertEquals(StorageMode.DENSE, ((IncidMatrixUndir) mst).getStorageMode());
     }
 
     @Test
+    @DisplayName("Floyd-Warshall shortest paths test")
     void getFloydWarshallShortestPaths() {
-        Exception e = Assertions.assertThrows(UnsupportedOperationException.class, () -> weightedGraph.getFloydWarshallShortestPaths());
-        Assertions.assertEquals(IncidMatrixUndirWeight.UNSUPPORTED_IMPLEMENTATION, e.getMessage());
+        for (int i = 0; i < 5; ++i)
+            weightedGraph.addVertex();
+        int[][] edges = {{1, 2, 30}, {1, 3, 20}, {3, 2, 2}, {1, 4, 52}, {3, 4, 2}};
+        for (int[] edge : edges) {
+            weightedGraph.addEdge(Edge.getEdgeByVertexes(edge[0], edge[1]));
+            weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(edge[0], edge[1]), edge[2]);
+        }
+        WeightedGraph graph = weightedGraph.getFloydWarshallShortestPaths();
+        Assertions.assertEquals(5, graph.size());
+        Assertions.assertEquals(6, graph.getEdges().size());
+        Assertions.assertEquals(22.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(1, 2)));
+        Assertions.assertEquals(22.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(4, 1)));
+        Assertions.assertEquals(4.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(2, 4)));
+        Assertions.assertFalse(graph.containsEdge(Edge.getEdgeByVertexes(0, 1)));
+
+        ShortestPathMatrix shortestPaths = ((IncidMatrixUndirWeight) weightedGraph).getFloydWarshallMatrix();
+        Assertions.assertEquals(List.of(1, 3, 4), shortestPaths.getPath(1, 4));
+        Assertions.assertEquals(List.of(2), shortestPaths.getPath(2, 2));
+        Assertions.assertTrue(shortestPaths.getPath(0, 4).isEmpty());
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, shortestPaths.getDistance(0, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> shortestPaths.getDistance(0, 5));
+
+        weightedGraph.setEdgeWeight(Edge.getEdgeByVertexes(1, 2), -1);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> weightedGraph.getFloydWarshallShortestPaths());
+
+        IncidMatrixUndirWeight tooLarge = IncidMatrixUndir.builder().vertices(BlockedFloydWarshall.MAX_VERTICES + 1)
+                .storage(StorageMode.SPARSE).edge(0, 1, 1.0).buildWeighted();
+        Assertions.assertThrows(IllegalArgumentException.class, tooLarge::getFloydWarshallMatrix);
+    }
+
+    @Test
+    @DisplayName("Floyd-Warshall over several tiles")
+    void floydWarshallTiles() {
+        int size = 2 * BlockedFloydWarshall.TILE + 13;
+        Random random = new Random(7);
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        double[][] expected = new double[size][size];
+        for (int i = 0; i < size; ++i) {
+            graph.addVertex();
+            Arrays.fill(expected[i], Double.POSITIVE_INFINITY);
+            expected[i][i] = 0;
+        }
+        for (int i = 0; i < 3 * size; ++i) {
+            int source = random.nextInt(size);
+            int target = random.nextInt(size);
+            double weight = random.nextInt(100);
+            if (source != target && expected[source][target] == Double.POSITIVE_INFINITY) {
+                graph.addColumn(source, target, weight);
+                expected[source][target] = expected[target][source] = weight;
+            }
+        }
+        for (int k = 0; k < size; ++k)
+            for (int i = 0; i < size; ++i)
+                for (int j = 0; j < size; ++j)
+                    expected[i][j] = Math.min(expected[i][j], expected[i][k] + expected[k][j]);
+
+        ShortestPathMatrix shortestPaths = graph.getFloydWarshallMatrix();
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                Assertions.assertEquals(expected[i][j], shortestPaths.getDistance(i, j));
+                List<Integer> path = shortestPaths.getPath(i, j);
+                double length = 0;
+                for (int step = 1; step < path.size(); ++step)
+                    length += graph.matrix.weight(graph.edgeIndex.get(path.get(step - 1), path.get(step)));
+                if (!path.isEmpty())
+                    Assertions.assertEquals(expected[i][j], length);
+            }
+        }
     }
 
     @Test
@@ -306,6 +559,93 @@ class IncidMatrixUndirWeightTest {
         System.out.println(weightedGraph);
     }
 
+    @Test
+    @DisplayName("Remove several vertexes test")
+    void removeVertices() {
+        Random random = new Random(5);
+        for (StorageMode mode : StorageMode.values()) {
+            if (mode == StorageMode.BIT_PACKED || mode == StorageMode.MAPPED)
+                continue; // no weights, see the bit-packed storage test; mapped graphs come from a snapshot
+            IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(60).storage(mode);
+            for (int i = 0; i < 200; ++i)
+                builder.edge(random.nextInt(60), random.nextInt(60), random.nextInt(100));
+            IncidMatrixUndirWeight batch = builder.buildWeighted();
+            IncidMatrixUndirWeight oneByOne = builder.buildWeighted();
+            List<Integer> removed = List.of(3, 59, 0, 17, 18, 3, 40);
+            batch.removeVertices(removed);
+            for (int vertex : new int[]{59, 40, 18, 17, 3, 0})
+                oneByOne.removeVertex(vertex);
+            Assertions.assertEquals(54, batch.size());
+            Assertions.assertEquals(oneByOne, batch);
+            for (Edge edge : oneByOne.getEdges())
+                Assertions.assertEquals(oneByOne.getEdgeWeight(edge), batch.getEdgeWeight(edge));
+            Assertions.assertEquals(oneByOne.getAdjacent(10), batch.getAdjacent(10));
+        }
+        IncidMatrixUndirWeight graph = new IncidMatrixUndirWeight();
+        Assertions.assertThrows(NoSuchElementException.class, () -> graph.removeVertices(List.of(0)));
+        graph.addVertex();
+        Assertions.assertThrows(NoSuchElementException.class, () -> graph.removeVertices(List.of(0, 1)));
+        Assertions.assertEquals(1, graph.size());
+    }
+
+    @Test
+    @DisplayName("Sparse storage test")
+    void sparseStorage() {
+        IncidMatrixUndirWeight sparse = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        for (int i = 0; i < 5; ++i)
+            sparse.addVertex();
+        sparse.addEdge(Edge.getEdgeByVertexes(0, 1));
+        sparse.addEdge(Edge.getEdgeByVertexes(0, 2));
+        sparse.addEdge(Edge.getEdgeByVertexes(3, 4));
+        sparse.setEdgeWeight(Edge.getEdgeByVertexes(1, 0), 40);
+        sparse.setEdgeWeight(Edge.getEdgeByVertexes(0, 2), 10);
+        sparse.setEdgeWeight(Edge.getEdgeByVertexes(3, 4), 5);
+        Assertions.assertEquals(40, sparse.getEdgeWeight(Edge.getEdgeByVertexes(0, 1)));
+        sparse.removeVertex(1);
+        Assertions.assertEquals(10, sparse.getEdgeWeight(Edge.getEdgeByVertexes(0, 1)));
+        Assertions.assertEquals(5, sparse.getEdgeWeight(Edge.getEdgeByVertexes(2, 3)));
+        Assertions.assertEquals(2, sparse.getEdges().size());
+        Assertions.assertTrue(sparse.toString().startsWith("Weighted incident matrix"));
+    }
+
+    @Test
+    @DisplayName("Off-heap storage test")
+    void offHeapStorage() {
+        IncidMatrixUndirWeight offHeap = new IncidMatrixUndirWeight(StorageMode.OFF_HEAP);
+        IncidMatrixUndirWeight sparse = new IncidMatrixUndirWeight(StorageMode.SPARSE);
+        Random random = new Random(3);
+        for (int i = 0; i < 40; ++i) {
+            offHeap.addVertex();
+            sparse.addVertex();
+        }
+        for (int i = 0; i < 150; ++i) {
+            Edge edge = Edge.getEdgeByVertexes(random.nextInt(40), random.nextInt(40));
+            double weight = random.nextInt(20);
+            offHeap.addEdge(edge);
+            sparse.addEdge(edge);
+            offHeap.setEdgeWeight(edge, weight);
+            sparse.setEdgeWeight(edge, weight);
+            if (i % 10 == 0) {
+                offHeap.removeEdge(edge);
+                sparse.removeEdge(edge);
+            }
+        }
+        offHeap.removeVertex(7);
+        sparse.removeVertex(7);
+        Assertions.assertEquals(sparse, offHeap);
+        for (int i = 0; i < sparse.size(); ++i)
+            Assertions.assertEquals(sparse.getAdjacent(i), offHeap.getAdjacent(i));
+        for (Edge edge : sparse.getEdges())
+            Assertions.assertEquals(sparse.getEdgeWeight(edge), offHeap.getEdgeWeight(edge));
+        IncidMatrixUndirWeight mst = (IncidMatrixUndirWeight) offHeap.getKruskalMST();
+        Assertions.assertEquals(StorageMode.SPARSE, mst.getStorageMode());
+        Assertions.assertEquals(sparse.getKruskalMST(), mst);
+
+        offHeap.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> offHeap.getAdjacent(0));
+        Assertions.assertDoesNotThrow(offHeap::close);
+    }
+
     @Test
     void vertexDistanceTest(){
         IncidMatrixUndirWeight.VertexDistance vd = new IncidMatrixUndirWeight.VertexDistance(4) ;
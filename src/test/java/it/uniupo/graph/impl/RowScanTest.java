@@ -0,0 +1,41 @@
+package it.uniupo.graph.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class RowScanTest {
+
+    @Test
+    @DisplayName("Vector and scalar scans agree test")
+    void scans() {
+        Assertions.assertTrue(RowScan.VECTORIZED, "the tests run with --add-modules jdk.incubator.vector");
+        Random random = new Random(13);
+        // lengths around the vector sizes, so both the vector loop and the tail are covered
+        for (int length = 0; length < 300; length += 1 + length / 8) {
+            double[] cells = new double[length + 5];
+            int[] first = new int[length + 5];
+            int[] second = new int[length + 5];
+            for (int i = 0; i < cells.length; ++i) {
+                int kind = random.nextInt(10);
+                cells[i] = kind == 0 ? random.nextDouble() : kind == 1 ? Double.NaN : IncidenceStorage.NOT_INCIDENT;
+                first[i] = random.nextInt(6);
+                second[i] = random.nextInt(6);
+            }
+            List<Integer> scalar = new ArrayList<>();
+            List<Integer> vector = new ArrayList<>();
+            RowScan.scalarForEachBelow(cells, length, IncidenceStorage.NOT_INCIDENT, scalar::add);
+            VectorRowScan.forEachBelow(cells, length, IncidenceStorage.NOT_INCIDENT, vector::add);
+            Assertions.assertEquals(scalar, vector);
+            scalar.clear();
+            vector.clear();
+            RowScan.scalarForEachEqual(first, second, length, 3, scalar::add);
+            VectorRowScan.forEachEqual(first, second, length, 3, vector::add);
+            Assertions.assertEquals(scalar, vector);
+        }
+    }
+}
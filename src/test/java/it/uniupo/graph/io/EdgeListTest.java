@@ -0,0 +1,125 @@
+package it.uniupo.graph.io;
+
+import it.uniupo.graph.impl.IncidMatrixUndir;
+import it.uniupo.graph.impl.IncidMatrixUndirWeight;
+import it.uniupo.graph.impl.StorageMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import upo.graph.base.Edge;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+class EdgeListTest {
+
+    @TempDir
+    Path directory;
+
+    private static ReadableByteChannel channelOf(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    @DisplayName("Read an edge list test")
+    void read() throws IOException {
+        String text = "# a comment\n"
+                + "% another one\n"
+                + "0 1 2.5\r\n"
+                + "\n"
+                + "1\t2   -3\n"
+                + "  2 0 1e-3  \n"
+                + "3 3\n"
+                + "1 0 100\n"
+                + "4 2 6.02214076e23";
+        IncidMatrixUndirWeight graph = EdgeListReader.read(channelOf(text)).buildWeighted();
+        Assertions.assertEquals(5, graph.size());
+        Assertions.assertEquals(5, graph.edgeCount());
+        Assertions.assertEquals(2.5, graph.getEdgeWeight(Edge.getEdgeByVertexes(0, 1)));
+        Assertions.assertEquals(-3.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(2, 1)));
+        Assertions.assertEquals(0.001, graph.getEdgeWeight(Edge.getEdgeByVertexes(0, 2)));
+        Assertions.assertEquals(0.0, graph.getEdgeWeight(Edge.getEdgeByVertexes(3, 3)));
+        Assertions.assertEquals(6.02214076e23, graph.getEdgeWeight(Edge.getEdgeByVertexes(2, 4)));
+
+        IncidMatrixUndir unweighted = EdgeListReader.read(channelOf("# Nodes: 10 Edges: 1\n0 1\n")).build();
+        Assertions.assertEquals(10, unweighted.size());
+        Assertions.assertEquals(Set.of(1), unweighted.getAdjacent(0));
+    }
+
+    @Test
+    @DisplayName("Weights are parsed exactly test")
+    void weights() throws IOException {
+        Random random = new Random(9);
+        StringBuilder text = new StringBuilder();
+        double[] expected = new double[2000];
+        for (int i = 0; i < expected.length; ++i) {
+            String token;
+            switch (i % 4) {
+                case 0 -> token = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+                case 1 -> token = String.format("%.3f", random.nextGaussian() * 1000);
+                case 2 -> token = Long.toString(random.nextLong());
+                default -> token = random.nextInt(1000) + "E" + (random.nextInt(60) - 30);
+            }
+            expected[i] = Double.parseDouble(token);
+            text.append(i).append(' ').append(i + 1).append(' ').append(token).append('\n');
+        }
+        IncidMatrixUndirWeight graph = EdgeListReader.read(channelOf(text.toString())).buildWeighted();
+        for (int i = 0; i < expected.length; ++i)
+            Assertions.assertEquals(expected[i], graph.getEdgeWeight(Edge.getEdgeByVertexes(i, i + 1)), text.toString().lines().skip(i).findFirst().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Lines across chunks test")
+    void chunks() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; ++i)
+            text.append(i).append(' ').append((i * 7) % 500).append(' ').append(i / 4.0).append('\n');
+        IncidMatrixUndirWeight whole = EdgeListReader.read(channelOf(text.toString())).buildWeighted();
+        IncidMatrixUndirWeight chunked = EdgeListReader.read(channelOf(text.toString()), 32).buildWeighted();
+        Assertions.assertEquals(whole, chunked);
+        for (Edge edge : whole.getEdges())
+            Assertions.assertEquals(whole.getEdgeWeight(edge), chunked.getEdgeWeight(edge));
+        Assertions.assertThrows(IOException.class,
+                () -> EdgeListReader.read(channelOf("0 1 0.1234567890123456789012345678901234\n"), 32));
+    }
+
+    @Test
+    @DisplayName("Malformed lines test")
+    void malformed() {
+        for (String text : new String[]{"0\n", "0 x\n", "0 1 2 3\n", "-1 2\n", "0 1 abc\n", "01 2 -\n", "99999999999 1\n"}) {
+            IOException e = Assertions.assertThrows(IOException.class, () -> EdgeListReader.read(channelOf("0 1\n" + text)));
+            Assertions.assertEquals("Line 2 is not an edge", e.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Write and read back test")
+    void roundTrip() throws IOException {
+        Random random = new Random(4);
+        IncidMatrixUndir.Builder builder = IncidMatrixUndir.builder().vertices(300).storage(StorageMode.SPARSE);
+        for (int i = 0; i < 1000; ++i)
+            builder.edge(random.nextInt(200), random.nextInt(200), i % 3 == 0 ? random.nextInt(50) - 25 : random.nextGaussian());
+        builder.edge(5, 6, -0.0).edge(7, 8, 1e300).edge(9, 10, Double.POSITIVE_INFINITY);
+        IncidMatrixUndirWeight graph = builder.buildWeighted();
+        Path path = directory.resolve("graph.txt");
+        EdgeListWriter.write(graph, path);
+        IncidMatrixUndirWeight read = EdgeListReader.read(path).storage(StorageMode.SPARSE).buildWeighted();
+        Assertions.assertEquals(300, read.size());
+        Assertions.assertEquals(graph, read);
+        for (Edge edge : graph.getEdges())
+            Assertions.assertEquals(graph.getEdgeWeight(edge), read.getEdgeWeight(edge));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EdgeListWriter.write(builder.build(), Channels.newChannel(out));
+        Assertions.assertTrue(out.toString(StandardCharsets.US_ASCII).startsWith("# Nodes: 300 Edges: " + graph.edgeCount() + "\n"));
+        Assertions.assertEquals(graph, EdgeListReader.read(channelOf(out.toString(StandardCharsets.US_ASCII))).build());
+    }
+}